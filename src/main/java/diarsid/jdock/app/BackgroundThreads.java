@@ -0,0 +1,118 @@
+package diarsid.jdock.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import diarsid.support.concurrency.threads.NamedThreadSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Objects.isNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class BackgroundThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(BackgroundThreads.class);
+
+    private static final long ELASTIC_KEEP_ALIVE_SECONDS = 30;
+
+    private final NamedThreadSource namedThreadSource;
+    private final boolean isVirtual;
+    private final List<ExecutorService> ownExecutors;
+
+    public BackgroundThreads(NamedThreadSource namedThreadSource, boolean virtualRequested) {
+        this.namedThreadSource = namedThreadSource;
+        this.ownExecutors = new ArrayList<>();
+
+        boolean virtualSupported = false;
+        if ( virtualRequested ) {
+            ExecutorService probe = newVirtualThreadsExecutor("probe");
+            if ( isNull(probe) ) {
+                log.warn("virtual threads are not supported by Java " + System.getProperty("java.version") + ", platform threads are used");
+            }
+            else {
+                probe.shutdown();
+                virtualSupported = true;
+            }
+        }
+        this.isVirtual = virtualSupported;
+    }
+
+    public boolean isVirtual() {
+        return this.isVirtual;
+    }
+
+    public synchronized ExecutorService blocking(String name, int platformThreads) {
+        if ( this.isVirtual ) {
+            ExecutorService executor = newVirtualThreadsExecutor(name);
+            this.ownExecutors.add(executor);
+            return executor;
+        }
+        else {
+            return this.namedThreadSource.newNamedScheduledExecutorService(name, platformThreads);
+        }
+    }
+
+    /*
+     * For tasks that may block for unknown time, e.g. process launches. Thread is
+     * started for a task when all others are busy, so one stuck task does not hold
+     * others back. Idle threads end after keep-alive, a task is rejected when all
+     * maxPlatformThreads are busy.
+     */
+    public synchronized ExecutorService elastic(String name, int maxPlatformThreads) {
+        ExecutorService executor;
+        if ( this.isVirtual ) {
+            executor = newVirtualThreadsExecutor(name);
+        }
+        else {
+            executor = new ThreadPoolExecutor(
+                    0, maxPlatformThreads,
+                    ELASTIC_KEEP_ALIVE_SECONDS, SECONDS,
+                    new SynchronousQueue<>(),
+                    newDaemonThreadsFactory(name));
+        }
+        this.ownExecutors.add(executor);
+        return executor;
+    }
+
+    public synchronized void close() {
+        for ( ExecutorService executor : this.ownExecutors ) {
+            executor.shutdownNow();
+        }
+        this.ownExecutors.clear();
+    }
+
+    private static ThreadFactory newDaemonThreadsFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "diarsid.jdock." + name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ExecutorService newVirtualThreadsExecutor(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = virtualBuilderClass
+                    .getMethod("name", String.class, long.class)
+                    .invoke(builder, "diarsid.jdock." + name + "-", 0L);
+            ThreadFactory factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory")
+                    .invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package diarsid.jdock.app;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import diarsid.jdock.json.ConfigError;
+import diarsid.jdock.json.ConfigJson;
+import diarsid.jdock.json.ConfigJsonReader;
+import diarsid.support.concurrency.threads.NamedThreadSource;
+import diarsid.support.objects.Either;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static diarsid.support.objects.Either.Side.LEFT;
+
+public class ConfigReloading {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigReloading.class);
+
+    public static final long COALESCING_MILLIS = 300;
+
+    private final ConfigJsonReader reader;
+    private final Consumer<ConfigJson> applying;
+    private final ScheduledExecutorService coalescing;
+    private final ExecutorService reloading;
+    private final ExecutorService watching;
+    private final Lock reloadLock;
+    private final Object lock;
+    private Future<?> pendingReload;
+    private WatchService watchService;
+    private FileTime lastReadTime;
+    private long lastReadSize;
+
+    public ConfigReloading(
+            ConfigJsonReader reader,
+            NamedThreadSource namedThreadSource,
+            BackgroundThreads backgroundThreads,
+            Consumer<ConfigJson> applying) {
+        this.reader = reader;
+        this.applying = applying;
+        this.coalescing = namedThreadSource.newNamedScheduledExecutorService("config-reload-coalescing", 1);
+        this.reloading = backgroundThreads.blocking("config-reload", 1);
+        this.watching = backgroundThreads.blocking("config-watch", 1);
+        this.reloadLock = new ReentrantLock();
+        this.lock = new Object();
+        this.pendingReload = null;
+        this.watchService = null;
+        this.lastReadTime = null;
+        this.lastReadSize = -1;
+        this.rememberFileState();
+    }
+
+    public void reloadNow() {
+        this.schedule(false, 0);
+    }
+
+    public void reloadCoalesced() {
+        this.schedule(true, COALESCING_MILLIS);
+    }
+
+    private void schedule(boolean onlyIfFileChanged, long delay) {
+        synchronized ( this.lock ) {
+            if ( nonNull(this.pendingReload) ) {
+                this.pendingReload.cancel(false);
+            }
+            this.pendingReload = this.coalescing.schedule(
+                    () -> this.reloading.execute(() -> this.reload(onlyIfFileChanged)),
+                    delay, MILLISECONDS);
+        }
+    }
+
+    private void reload(boolean onlyIfFileChanged) {
+        this.reloadLock.lock();
+        try {
+            this.reloadSerially(onlyIfFileChanged);
+        }
+        finally {
+            this.reloadLock.unlock();
+        }
+    }
+
+    private void reloadSerially(boolean onlyIfFileChanged) {
+        if ( onlyIfFileChanged && ! this.isFileChanged() ) {
+            log.debug("config file is not changed, reload skipped");
+            return;
+        }
+
+        this.rememberFileState();
+        Either<ConfigJson, ConfigError> configOrError = this.reader.get();
+        if ( configOrError.side.equalTo(LEFT) ) {
+            try {
+                this.applying.accept(configOrError.left);
+            }
+            catch (Exception e) {
+                log.error("cannot apply config", e);
+            }
+        }
+        else {
+            log.warn(configOrError.right.message);
+        }
+    }
+
+    private boolean isFileChanged() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(this.reader.path(), BasicFileAttributes.class);
+            return
+                    isNull(this.lastReadTime) ||
+                    ! this.lastReadTime.equals(attributes.lastModifiedTime()) ||
+                    this.lastReadSize != attributes.size();
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void rememberFileState() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(this.reader.path(), BasicFileAttributes.class);
+            this.lastReadTime = attributes.lastModifiedTime();
+            this.lastReadSize = attributes.size();
+        }
+        catch (IOException e) {
+            this.lastReadTime = null;
+            this.lastReadSize = -1;
+        }
+    }
+
+    public boolean isWatching() {
+        synchronized ( this.lock ) {
+            return nonNull(this.watchService);
+        }
+    }
+
+    public void watch() {
+        synchronized ( this.lock ) {
+            if ( nonNull(this.watchService) ) {
+                return;
+            }
+
+            Path directory = this.reader.path().getParent();
+            try {
+                WatchService newWatchService = FileSystems.getDefault().newWatchService();
+                directory.register(newWatchService, ENTRY_CREATE, ENTRY_MODIFY);
+                this.watchService = newWatchService;
+                this.watching.submit(() -> this.watchChanges(newWatchService));
+                log.info("watching " + this.reader.path());
+            }
+            catch (IOException e) {
+                log.error("cannot watch " + directory, e);
+            }
+        }
+    }
+
+    public void unwatch() {
+        synchronized ( this.lock ) {
+            if ( isNull(this.watchService) ) {
+                return;
+            }
+
+            try {
+                this.watchService.close();
+            }
+            catch (IOException e) {
+                log.warn("cannot close config watching", e);
+            }
+            this.watchService = null;
+        }
+    }
+
+    private void watchChanges(WatchService watchService) {
+        Path configFileName = this.reader.path().getFileName();
+        WatchKey key;
+        boolean configChanged;
+
+        while ( true ) {
+            try {
+                key = watchService.take();
+            }
+            catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            configChanged = false;
+            for ( WatchEvent<?> event : key.pollEvents() ) {
+                if ( event.kind() == OVERFLOW || configFileName.equals(event.context()) ) {
+                    configChanged = true;
+                }
+            }
+
+            if ( configChanged ) {
+                this.reloadCoalesced();
+            }
+
+            if ( ! key.reset() ) {
+                return;
+            }
+        }
+    }
+}
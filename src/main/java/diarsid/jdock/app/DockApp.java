@@ -1,39 +1,51 @@
 package diarsid.jdock.app;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.security.cert.Extension;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 import javafx.application.Platform;
 
 import diarsid.files.Extensions;
+import diarsid.jdock.jfx.AlwaysOnTopKeeper;
 import diarsid.jdock.jfx.Dock;
-import diarsid.jdock.json.ConfigError;
+import diarsid.jdock.jfx.IconsLoading;
+import diarsid.jdock.jfx.ScreenGeometry;
 import diarsid.jdock.json.ConfigJson;
 import diarsid.jdock.json.ConfigJsonReader;
+import diarsid.jdock.model.DockLatencies;
 import diarsid.jdock.model.DockPosition;
+import diarsid.jdock.model.TimerWheel;
 import diarsid.support.concurrency.threads.NamedThreadSource;
 import diarsid.support.filesystem.FileInvoker;
 import diarsid.support.javafx.FilesNativeIconImageExtractor;
 import diarsid.support.javafx.HiddenStages;
 import diarsid.support.javafx.PlatformStartup;
 import diarsid.support.objects.CommonEnum;
-import diarsid.support.objects.Either;
 import diarsid.support.objects.references.Possible;
 import diarsid.support.objects.references.PresentProperty;
 import diarsid.support.objects.references.References;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
 
 import static diarsid.jdock.app.DockApp.ExitBehavior.SHUTDOWN_JAVA_PROCESS;
+import static diarsid.jdock.json.ConfigReload.WATCH;
+import static diarsid.jdock.json.ThreadsMode.VIRTUAL;
 import static diarsid.jdock.model.DockPosition.values;
-import static diarsid.support.objects.Either.Side.LEFT;
 
 public class DockApp {
 
+    private static final Logger log = LoggerFactory.getLogger(DockApp.class);
+
     public static enum ExitBehavior implements CommonEnum<ExitBehavior> {
         SHUTDOWN_JAVA_PROCESS,
         HIDE_JAVAFX_COMPONENTS
@@ -42,10 +54,20 @@ public class DockApp {
     public final HiddenStages hiddenStages;
     private final Map<DockPosition, Possible<Dock>> docks;
     private final ConfigJsonReader configReader;
+    private final ConfigReloading configReloading;
+    public final ItemsValidation itemsValidation;
     private final AtomicBoolean fullScreenMode;
     public final NamedThreadSource namedThreadSource;
+    public final BackgroundThreads backgroundThreads;
+    public final ExecutorService invocations;
+    public final TimerWheel sessionTimers;
+    public final AlwaysOnTopKeeper onTopKeeper;
+    public final ScreenGeometry screens;
+    public final DockLatencies latencies;
     public final FileInvoker fileInvoker;
+    public final Launches launches;
     public final FilesNativeIconImageExtractor imageExtractor;
+    public final IconsLoading iconsLoading;
     public final PresentProperty<ConfigJson> config;
     public final PresentProperty<ExitBehavior> exitBehavior;
 
@@ -62,21 +84,66 @@ public class DockApp {
         this.hiddenStages = new HiddenStages();
         this.docks = new HashMap<>();
         this.namedThreadSource = new NamedThreadSource("diarsid.jdock");
+        this.sessionTimers = new TimerWheel(this.namedThreadSource, "dock-sessions", 25, 64);
+        this.onTopKeeper = new AlwaysOnTopKeeper(this.namedThreadSource, 30);
+        this.screens = new ScreenGeometry();
+        this.latencies = new DockLatencies();
+        this.backgroundThreads = new BackgroundThreads(
+                this.namedThreadSource, this.config.get().getSettings().getThreads() == VIRTUAL);
+        this.invocations = this.backgroundThreads.elastic("invocations", Launches.MAX_INVOCATION_THREADS);
         this.fileInvoker = new FileInvoker();
+        this.launches = new Launches(
+                this.fileInvoker, this.invocations, this.backgroundThreads.blocking("launch-plans", 1));
+        this.launches.applySettings(this.config.get().getSettings());
         Extensions extensions = new Extensions();
         this.imageExtractor = new FilesNativeIconImageExtractor(extensions);
+        this.iconsLoading = new IconsLoading(this.backgroundThreads, this.imageExtractor);
+        this.iconsLoading.applySettings(this.config.get().getSettings());
+        this.configReloading = new ConfigReloading(
+                this.configReader, this.namedThreadSource, this.backgroundThreads, this::apply);
+        this.itemsValidation = new ItemsValidation(this.backgroundThreads, this::applyItemStatuses);
 
         for ( DockPosition position : values() ) {
             this.docks.put(position, References.simplePossibleButEmpty());
         }
 
+        this.iconsLoading.prefetchNativeIcons(this.config.get());
         this.createDocks();
+        this.applyReloadMode();
+        this.itemsValidation.validate(this.config.get());
+
+        Platform.setImplicitExit(false);
+        log.info("started, " + this.threadsStats());
+    }
+
+    private void apply(ConfigJson newConfig) {
+        this.config.resetTo(newConfig);
+        this.iconsLoading.applySettings(newConfig.getSettings());
+        this.iconsLoading.prefetchNativeIcons(newConfig);
+        this.launches.applySettings(newConfig.getSettings());
+        this.reconfigureDocks();
+        this.applyReloadMode();
+        this.itemsValidation.validate(newConfig);
+        log.info("config applied, " + this.iconsLoading.cache + ", " + this.threadsStats());
+    }
+
+    private String threadsStats() {
+        return (this.backgroundThreads.isVirtual() ? "virtual" : "platform") + " background threads, " + ProcessStats.describe();
+    }
 
-        this.config.listen((oldConfig, newConfig) -> {
-            this.reconfigureDocks();
+    private void applyItemStatuses() {
+        Platform.runLater(() -> {
+            this.allDocks().forEach(Dock::applyItemStatuses);
         });
+    }
 
-        Platform.setImplicitExit(false);
+    private void applyReloadMode() {
+        if ( this.config.get().getSettings().getReload() == WATCH ) {
+            this.configReloading.watch();
+        }
+        else {
+            this.configReloading.unwatch();
+        }
     }
 
     private void createDocks() {
@@ -91,25 +158,46 @@ public class DockApp {
                 Dock newDock = new Dock(position, this);
                 this.docks.get(position).resetTo(newDock);
             });
+            log.info(format("docks created, %s native windows, %s",
+                    this.allDocks().mapToInt(Dock::nativeWindows).sum(),
+                    ProcessStats.describe()));
         });
     }
 
     private void reconfigureDocks() {
+        CountDownLatch reconfiguring = new CountDownLatch(1);
+
         Platform.runLater(() -> {
-            this.allDocks().forEach(Dock::reconfigure);
-
-            this.config
-                    .get()
-                    .getDocks()
-                    .allNonEmpty()
-                    .forEach((position, itemJsons) -> {
-                        Possible<Dock> dock = this.docks.get(position);
-                        if ( dock.isNotPresent() ) {
-                            Dock newDock = new Dock(position, this);
-                            dock.resetTo(newDock);
-                        }
-                    });
+            try {
+                this.reconfigureDocksOnFx();
+            }
+            finally {
+                reconfiguring.countDown();
+            }
         });
+
+        try {
+            reconfiguring.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reconfigureDocksOnFx() {
+        this.allDocks().forEach(Dock::reconfigure);
+
+        this.config
+                .get()
+                .getDocks()
+                .allNonEmpty()
+                .forEach((position, itemJsons) -> {
+                    Possible<Dock> dock = this.docks.get(position);
+                    if ( dock.isNotPresent() ) {
+                        Dock newDock = new Dock(position, this);
+                        dock.resetTo(newDock);
+                    }
+                });
     }
 
     private Stream<Dock> allDocks() {
@@ -121,24 +209,51 @@ public class DockApp {
     }
 
     public void exit(ExitBehavior exitBehavior) {
+        this.dumpLatencies();
+        this.configReloading.unwatch();
+        this.itemsValidation.dispose();
+        log.info("exit, " + this.sessionTimers + ", " + this.onTopKeeper + ", " + this.launches + ", " + this.threadsStats());
         switch ( exitBehavior ) {
             case SHUTDOWN_JAVA_PROCESS:
+                this.closeThreads();
                 this.shutdown();
                 break;
             case HIDE_JAVAFX_COMPONENTS:
                 this.hide();
+                this.closeThreads();
                 break;
             default:
                 throw exitBehavior.unsupported();
 
         }
-        namedThreadSource.closeThreads();
+    }
+
+    private void dumpLatencies() {
+        log.info("show/hide latencies:" + this.latencies.describe());
+
+        String latenciesFile = this.config.get().getSettings().getLatenciesFile();
+        if ( isNull(latenciesFile) ) {
+            return;
+        }
+
+        try {
+            this.latencies.dumpTo(Paths.get(latenciesFile));
+            log.info("show/hide latencies dumped to " + latenciesFile);
+        }
+        catch (IOException e) {
+            log.error("cannot dump show/hide latencies to " + latenciesFile, e);
+        }
     }
 
     public void exit() {
         this.exit(this.exitBehavior.get());
     }
 
+    private void closeThreads() {
+        this.backgroundThreads.close();
+        namedThreadSource.closeThreads();
+    }
+
     private void shutdown() {
         System.exit(0);
     }
@@ -165,15 +280,7 @@ public class DockApp {
     }
 
     public void reload() {
-        runAsync(() -> {
-            Either<ConfigJson, ConfigError> configOrError = this.configReader.get();
-            if ( configOrError.side.equalTo(LEFT) ) {
-                this.config.resetTo(configOrError.left);
-            }
-            else {
-                System.out.println(configOrError.right.message);
-            }
-        });
+        this.configReloading.reloadNow();
     }
 
     public void toggleFullScreen() {
@@ -185,10 +292,12 @@ public class DockApp {
             this.fullScreenMode.set(nextFullScreenMode);
         }
         if ( nextFullScreenMode ) {
+            this.onTopKeeper.pause();
             this.allDocks().forEach(Dock::fullScreenModeOn);
         }
         else {
             this.allDocks().forEach(Dock::fullScreenModeOff);
+            this.onTopKeeper.resume();
         }
     }
 
@@ -0,0 +1,380 @@
+package diarsid.jdock.app;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+
+import diarsid.jdock.json.ConfigJson;
+import diarsid.jdock.json.ItemJson;
+import diarsid.jdock.model.ItemStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+import static diarsid.jdock.model.ItemStatus.MISSING_ICON;
+import static diarsid.jdock.model.ItemStatus.MISSING_TARGET;
+import static diarsid.jdock.model.ItemStatus.UNKNOWN;
+import static diarsid.jdock.model.ItemStatus.VALID;
+
+public class ItemsValidation {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemsValidation.class);
+
+    private static final Pattern URL = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.\\-]+:/.*");
+
+    /*
+     * Modification time of parent directory is kept with the state: file creation,
+     * deletion or rename changes it, so a watched path is re-checked only when its
+     * directory has changed since the path was checked.
+     */
+    private static class PathState {
+
+        final boolean exists;
+        final long modifiedMillis;
+        final long directoryModifiedMillis;
+
+        PathState(boolean exists, long modifiedMillis, long directoryModifiedMillis) {
+            this.exists = exists;
+            this.modifiedMillis = modifiedMillis;
+            this.directoryModifiedMillis = directoryModifiedMillis;
+        }
+
+        static PathState missing(long directoryModifiedMillis) {
+            return new PathState(false, -1, directoryModifiedMillis);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PathState)) return false;
+            PathState pathState = (PathState) o;
+            return exists == pathState.exists &&
+                    modifiedMillis == pathState.modifiedMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(modifiedMillis) * 31 + Boolean.hashCode(exists);
+        }
+    }
+
+    private final ExecutorService validating;
+    private final ExecutorService watching;
+    private final Map<Path, PathState> states;
+    private final Map<Path, WatchKey> watchedDirectories;
+    private final Runnable onStatusesChanged;
+    private final Object lock;
+    private WatchService watchService;
+
+    public ItemsValidation(BackgroundThreads backgroundThreads, Runnable onStatusesChanged) {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        this.validating = backgroundThreads.blocking("items-validation", threads);
+        this.watching = backgroundThreads.blocking("items-watch", 1);
+        this.states = new ConcurrentHashMap<>();
+        this.watchedDirectories = new HashMap<>();
+        this.onStatusesChanged = onStatusesChanged;
+        this.lock = new Object();
+        this.watchService = null;
+    }
+
+    public static Path pathOfTarget(String target) {
+        if ( isNull(target) || URL.matcher(target).matches() ) {
+            return null;
+        }
+
+        try {
+            return Paths.get(target).toAbsolutePath().normalize();
+        }
+        catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static Path pathOfIcon(Path icon) {
+        return icon.toAbsolutePath().normalize();
+    }
+
+    public ItemStatus statusOf(Path icon, String target) {
+        Path targetPath = pathOfTarget(target);
+        if ( nonNull(targetPath) ) {
+            PathState targetState = this.states.get(targetPath);
+            if ( isNull(targetState) ) {
+                return UNKNOWN;
+            }
+            if ( ! targetState.exists ) {
+                return MISSING_TARGET;
+            }
+        }
+
+        if ( nonNull(icon) ) {
+            PathState iconState = this.states.get(pathOfIcon(icon));
+            if ( isNull(iconState) ) {
+                return UNKNOWN;
+            }
+            if ( ! iconState.exists ) {
+                return MISSING_ICON;
+            }
+        }
+
+        return VALID;
+    }
+
+    public void validate(ConfigJson config) {
+        Set<Path> paths = new HashSet<>();
+        Path path;
+        for ( ItemJson[] items : config.getDocks().allNonEmpty().values() ) {
+            for ( ItemJson item : items ) {
+                path = pathOfTarget(item.getTarget());
+                if ( nonNull(path) ) {
+                    paths.add(path);
+                }
+                if ( nonNull(item.getIcon()) ) {
+                    try {
+                        paths.add(pathOfIcon(Paths.get(item.getIcon())));
+                    }
+                    catch (InvalidPathException e) {
+                        log.warn("invalid icon path " + item.getIcon());
+                    }
+                }
+            }
+        }
+
+        this.states.keySet().retainAll(paths);
+
+        Map<Path, List<Path>> pathsByDirectory = new HashMap<>();
+        for ( Path itemPath : paths ) {
+            pathsByDirectory.computeIfAbsent(itemPath.getParent(), directory -> new ArrayList<>()).add(itemPath);
+        }
+
+        Set<Path> watchedDirectories;
+        synchronized ( this.lock ) {
+            watchedDirectories = new HashSet<>(this.watchedDirectories.keySet());
+        }
+
+        List<CompletableFuture<Boolean>> stats = new ArrayList<>();
+        for ( Map.Entry<Path, List<Path>> directoryAndPaths : pathsByDirectory.entrySet() ) {
+            Path directory = directoryAndPaths.getKey();
+            boolean isWatched = watchedDirectories.contains(directory);
+            stats.add(supplyAsync(() -> this.statAll(directory, directoryAndPaths.getValue(), isWatched), this.validating));
+        }
+
+        CompletableFuture
+                .allOf(stats.toArray(new CompletableFuture[0]))
+                .whenCompleteAsync(
+                        (done, failure) -> {
+                            if ( nonNull(failure) ) {
+                                log.error("items validation failed", failure);
+                            }
+                            this.watchParentsOf(paths);
+                            this.onStatusesChanged.run();
+                        },
+                        this.validating);
+    }
+
+    /*
+     * Paths of not watched directory may have changed unnoticed, so they are checked
+     * on every validation. Paths of watched directory are checked only if they are new
+     * or directory has changed after they were checked.
+     */
+    private boolean statAll(Path directory, List<Path> paths, boolean isWatched) {
+        long directoryModifiedMillis = modifiedMillisOf(directory);
+        boolean anyChanged = false;
+        PathState state;
+        for ( Path path : paths ) {
+            state = this.states.get(path);
+            if ( isWatched && nonNull(state) && state.directoryModifiedMillis == directoryModifiedMillis ) {
+                continue;
+            }
+            anyChanged = this.stat(path, directoryModifiedMillis) || anyChanged;
+        }
+        return anyChanged;
+    }
+
+    private boolean stat(Path path) {
+        return this.stat(path, modifiedMillisOf(path.getParent()));
+    }
+
+    private boolean stat(Path path, long directoryModifiedMillis) {
+        PathState newState;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            newState = new PathState(true, attributes.lastModifiedTime().toMillis(), directoryModifiedMillis);
+        }
+        catch (IOException | SecurityException e) {
+            newState = PathState.missing(directoryModifiedMillis);
+        }
+
+        PathState oldState = this.states.put(path, newState);
+
+        if ( ! newState.exists ) {
+            log.info("missing " + path);
+        }
+
+        return ! newState.equals(oldState);
+    }
+
+    private static long modifiedMillisOf(Path directory) {
+        if ( isNull(directory) ) {
+            return -1;
+        }
+        try {
+            return Files.getLastModifiedTime(directory).toMillis();
+        }
+        catch (IOException | SecurityException e) {
+            return -1;
+        }
+    }
+
+    private void watchParentsOf(Set<Path> paths) {
+        Set<Path> directories = new HashSet<>();
+        Path directory;
+        for ( Path path : paths ) {
+            directory = path.getParent();
+            if ( nonNull(directory) ) {
+                directories.add(directory);
+            }
+        }
+
+        synchronized ( this.lock ) {
+            if ( isNull(this.watchService) ) {
+                try {
+                    this.watchService = FileSystems.getDefault().newWatchService();
+                }
+                catch (IOException e) {
+                    log.error("cannot watch items", e);
+                    return;
+                }
+                WatchService newWatchService = this.watchService;
+                this.watching.submit(() -> this.watchChanges(newWatchService));
+            }
+
+            Iterator<Map.Entry<Path, WatchKey>> watched = this.watchedDirectories.entrySet().iterator();
+            Map.Entry<Path, WatchKey> directoryAndKey;
+            while ( watched.hasNext() ) {
+                directoryAndKey = watched.next();
+                if ( ! directories.contains(directoryAndKey.getKey()) ) {
+                    directoryAndKey.getValue().cancel();
+                    watched.remove();
+                }
+            }
+
+            for ( Path notWatched : directories ) {
+                if ( this.watchedDirectories.containsKey(notWatched) ) {
+                    continue;
+                }
+                try {
+                    WatchKey key = notWatched.register(this.watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                    this.watchedDirectories.put(notWatched, key);
+                }
+                catch (IOException | RuntimeException e) {
+                    /* its items are re-checked on each validation instead */
+                    log.warn("cannot watch " + notWatched + ": " + e);
+                }
+            }
+        }
+    }
+
+    private void watchChanges(WatchService watchService) {
+        WatchKey key;
+        Path directory;
+        Path changed;
+        boolean anyChanged;
+
+        while ( true ) {
+            try {
+                key = watchService.take();
+            }
+            catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            directory = (Path) key.watchable();
+            anyChanged = false;
+            for ( WatchEvent<?> event : key.pollEvents() ) {
+                if ( event.kind() == OVERFLOW ) {
+                    for ( Path path : this.states.keySet() ) {
+                        if ( directory.equals(path.getParent()) ) {
+                            anyChanged = this.stat(path) || anyChanged;
+                        }
+                    }
+                }
+                else {
+                    changed = directory.resolve((Path) event.context());
+                    if ( this.states.containsKey(changed) ) {
+                        anyChanged = this.stat(changed) || anyChanged;
+                    }
+                }
+            }
+
+            if ( ! key.reset() ) {
+                anyChanged = this.invalidate(directory, key) || anyChanged;
+            }
+
+            if ( anyChanged ) {
+                this.onStatusesChanged.run();
+            }
+        }
+    }
+
+    /*
+     * Key is no longer valid, e.g. directory is deleted or moved. Its paths are checked
+     * again now and then on every validation, until directory is registered again.
+     */
+    private boolean invalidate(Path directory, WatchKey key) {
+        synchronized ( this.lock ) {
+            this.watchedDirectories.remove(directory, key);
+        }
+        log.info("watch of " + directory + " is lost");
+
+        boolean anyChanged = false;
+        for ( Path path : this.states.keySet() ) {
+            if ( directory.equals(path.getParent()) ) {
+                this.states.remove(path);
+                anyChanged = this.stat(path) || anyChanged;
+            }
+        }
+        return anyChanged;
+    }
+
+    public void dispose() {
+        synchronized ( this.lock ) {
+            if ( isNull(this.watchService) ) {
+                return;
+            }
+            try {
+                this.watchService.close();
+            }
+            catch (IOException e) {
+                log.warn("cannot close items watching", e);
+            }
+            this.watchService = null;
+            this.watchedDirectories.clear();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package diarsid.jdock.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static diarsid.jdock.app.ItemsValidation.pathOfTarget;
+import static diarsid.jdock.app.ShellLinks.isShellLink;
+
+/*
+ * Resolves item targets speculatively, when item is hovered, into what is actually
+ * invoked: symlinks and plain .lnk shortcuts are followed to the real file and bare
+ * command names are looked up on PATH. Press invokes the resolved target, so with
+ * a fresh plan the click path does no file system work before invocation.
+ */
+class LaunchPlans {
+
+    private static final long PLAN_FRESH_NANOS = MILLISECONDS.toNanos(5000);
+    private static final double NANOS_IN_MILLI = 1000_000.0;
+    private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase().startsWith("windows");
+
+    static class LaunchPlan {
+
+        final String target;
+        final String invocable;
+        final boolean exists;
+        final long resolvingNanos;
+        final long resolvedAtNanos;
+
+        private LaunchPlan(String target, String invocable, boolean exists, long resolvingNanos) {
+            this.target = target;
+            this.invocable = invocable;
+            this.exists = exists;
+            this.resolvingNanos = resolvingNanos;
+            this.resolvedAtNanos = System.nanoTime();
+        }
+
+        private boolean isFresh() {
+            return System.nanoTime() - this.resolvedAtNanos < PLAN_FRESH_NANOS;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<LaunchPlan>> plans;
+    private final LongAdder prepared;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder savedNanos;
+
+    LaunchPlans(ExecutorService executor) {
+        this.executor = executor;
+        this.plans = new ConcurrentHashMap<>();
+        this.prepared = new LongAdder();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.savedNanos = new LongAdder();
+    }
+
+    void prepare(String target) {
+        this.plans.computeIfPresent(target, (key, planning) -> isStale(planning) ? null : planning);
+        this.plans.computeIfAbsent(target, key -> {
+            this.prepared.increment();
+            return supplyAsync(() -> resolve(key), this.executor);
+        });
+    }
+
+    /*
+     * Takes plan prepared by hover, waiting for it if it is still being resolved,
+     * otherwise resolves on the calling thread. Only resolving time that click did
+     * not spend itself is counted as saved. Must be called off FX thread.
+     */
+    LaunchPlan take(String target) {
+        CompletableFuture<LaunchPlan> planning = this.plans.get(target);
+        if ( nonNull(planning) ) {
+            long waitStart = System.nanoTime();
+            try {
+                LaunchPlan plan = planning.join();
+                long waitedNanos = System.nanoTime() - waitStart;
+                if ( plan.isFresh() ) {
+                    this.hits.increment();
+                    this.savedNanos.add(Math.max(0, plan.resolvingNanos - waitedNanos));
+                    return plan;
+                }
+            }
+            catch (CompletionException e) {
+                /* failed planning, resolved again below */
+            }
+        }
+
+        /* not kept as a plan, so that hits count only work done ahead by hover */
+        this.misses.increment();
+        return resolve(target);
+    }
+
+    private static boolean isStale(CompletableFuture<LaunchPlan> planning) {
+        return
+                planning.isDone() &&
+                ( planning.isCompletedExceptionally() || ! planning.join().isFresh() );
+    }
+
+    private static LaunchPlan resolve(String target) {
+        long start = System.nanoTime();
+        Path path = pathOfTarget(target);
+        if ( isNull(path) ) {
+            /* URL, invoked as is */
+            return new LaunchPlan(target, target, true, System.nanoTime() - start);
+        }
+
+        Path real = realPathOf(path);
+        if ( isNull(real) ) {
+            Path command = commandOf(target);
+            if ( nonNull(command) ) {
+                return new LaunchPlan(target, command.toString(), true, System.nanoTime() - start);
+            }
+            return new LaunchPlan(target, target, false, System.nanoTime() - start);
+        }
+
+        if ( isShellLink(real) ) {
+            Path linked = ShellLinks.targetOf(real);
+            Path realLinked = isNull(linked) ? null : realPathOf(linked);
+            if ( nonNull(realLinked) ) {
+                real = realLinked;
+            }
+        }
+
+        return new LaunchPlan(target, real.toString(), true, System.nanoTime() - start);
+    }
+
+    private static Path realPathOf(Path path) {
+        try {
+            return path.toRealPath();
+        }
+        catch (IOException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Bare name like 'notepad' is resolved by OS through PATH (and PATHEXT on Windows).
+     */
+    private static Path commandOf(String target) {
+        if ( target.indexOf('/') >= 0 || target.indexOf('\\') >= 0 ) {
+            return null;
+        }
+
+        String pathVariable = System.getenv("PATH");
+        if ( isNull(pathVariable) ) {
+            return null;
+        }
+
+        String[] extensions = { "" };
+        if ( IS_WINDOWS && target.indexOf('.') < 0 ) {
+            String pathExtVariable = System.getenv("PATHEXT");
+            extensions = (isNull(pathExtVariable) ? ".COM;.EXE;.BAT;.CMD" : pathExtVariable).split(";");
+        }
+
+        for ( String directory : pathVariable.split(File.pathSeparator) ) {
+            for ( String extension : extensions ) {
+                try {
+                    Path command = Paths.get(directory, target + extension);
+                    if ( Files.isRegularFile(command) && Files.isExecutable(command) ) {
+                        return command.toAbsolutePath().normalize();
+                    }
+                }
+                catch (InvalidPathException e) {
+                    /* malformed PATH entry is skipped */
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        long prepared = this.prepared.sum();
+        long hits = this.hits.sum();
+        return format("LaunchPlans{prepared=%s, hits=%s, misses=%s, hoverToPress=%.1f%%, saved=%.3fms}",
+                prepared,
+                hits,
+                this.misses.sum(),
+                prepared == 0 ? 0.0 : hits * 100.0 / prepared,
+                this.savedNanos.sum() / NANOS_IN_MILLI);
+    }
+}
@@ -0,0 +1,188 @@
+package diarsid.jdock.app;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import diarsid.jdock.json.SettingsJson;
+import diarsid.support.filesystem.FileInvoker;
+import diarsid.support.filesystem.InvokeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class Launches {
+
+    private static final Logger log = LoggerFactory.getLogger(Launches.class);
+
+    public static final int DEFAULT_DEDUPE_MS = 700;
+    public static final int DEFAULT_TIMEOUT_MS = 10_000;
+    public static final int MAX_INVOCATION_THREADS = 16;
+
+    private final FileInvoker fileInvoker;
+    private final ExecutorService executor;
+    private final LaunchPlans plans;
+    private final Map<String, Long> lastLaunchNanos;
+    private final LongAdder launched;
+    private final LongAdder deduplicated;
+    private final LongAdder unresolved;
+    private final LongAdder failed;
+    private final LongAdder timedOut;
+    private volatile long dedupeNanos;
+    private volatile long timeoutMillis;
+
+    public Launches(FileInvoker fileInvoker, ExecutorService executor, ExecutorService planning) {
+        this.fileInvoker = fileInvoker;
+        this.executor = executor;
+        this.plans = new LaunchPlans(planning);
+        this.lastLaunchNanos = new ConcurrentHashMap<>();
+        this.launched = new LongAdder();
+        this.deduplicated = new LongAdder();
+        this.unresolved = new LongAdder();
+        this.failed = new LongAdder();
+        this.timedOut = new LongAdder();
+        this.dedupeNanos = MILLISECONDS.toNanos(DEFAULT_DEDUPE_MS);
+        this.timeoutMillis = DEFAULT_TIMEOUT_MS;
+    }
+
+    public void applySettings(SettingsJson settings) {
+        int dedupeMs = settings.getLaunchDedupeMs();
+        if ( dedupeMs == 0 ) {
+            dedupeMs = DEFAULT_DEDUPE_MS;
+        }
+        this.dedupeNanos = MILLISECONDS.toNanos(dedupeMs);
+
+        int timeoutMs = settings.getLaunchTimeoutMs();
+        if ( timeoutMs == 0 ) {
+            timeoutMs = DEFAULT_TIMEOUT_MS;
+        }
+        this.timeoutMillis = timeoutMs;
+    }
+
+    /*
+     * Speculatively resolves target while item is only hovered, before it is pressed.
+     * Press then invokes the resolved target instead of resolving it itself.
+     */
+    public void prepare(String target) {
+        if ( nonNull(target) ) {
+            this.plans.prepare(target);
+        }
+    }
+
+    /*
+     * Returns immediately. Empty if the same target has already been launched
+     * within dedupe window, otherwise a future completed on background thread
+     * with the invocation, with InvokeException or with TimeoutException.
+     */
+    public Optional<CompletableFuture<FileInvoker.Invocation>> launch(String target) {
+        if ( isNull(target) ) {
+            return Optional.empty();
+        }
+
+        long now = System.nanoTime();
+        long dedupeNanos = this.dedupeNanos;
+        long latest = this.lastLaunchNanos.merge(
+                target,
+                now,
+                (lastNanos, newNanos) -> newNanos - lastNanos < dedupeNanos ? lastNanos : newNanos);
+        if ( latest != now ) {
+            this.deduplicated.increment();
+            log.info("duplicate launch dropped " + target);
+            return Optional.empty();
+        }
+
+        this.launched.increment();
+        CompletableFuture<FileInvoker.Invocation> launch = new CompletableFuture<>();
+        Future<?> worker;
+        try {
+            worker = this.executor.submit(() -> {
+                try {
+                    launch.complete(this.invoke(this.plans.take(target)));
+                }
+                catch (CompletionException e) {
+                    launch.completeExceptionally(e.getCause());
+                }
+                catch (Throwable t) {
+                    launch.completeExceptionally(t);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            /* all invocation threads are stuck in hung launches */
+            worker = null;
+            launch.completeExceptionally(e);
+        }
+
+        Future<?> invoking = worker;
+        CompletableFuture<FileInvoker.Invocation> finished = launch
+                .orTimeout(this.timeoutMillis, MILLISECONDS)
+                .whenComplete((invocation, failure) -> {
+                    if ( failure instanceof TimeoutException && nonNull(invoking) ) {
+                        /* hung invocation must not keep its thread */
+                        invoking.cancel(true);
+                    }
+                    this.onLaunched(target, invocation, failure);
+                });
+
+        return Optional.of(finished);
+    }
+
+    private FileInvoker.Invocation invoke(LaunchPlans.LaunchPlan plan) {
+        if ( ! plan.exists ) {
+            /* neither a file nor a command on PATH, left to the OS as is */
+            this.unresolved.increment();
+            log.debug("launch target is not resolved " + plan.target);
+        }
+
+        try {
+            return this.fileInvoker.invoke(plan.invocable);
+        }
+        catch (InvokeException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void onLaunched(String target, FileInvoker.Invocation invocation, Throwable failure) {
+        if ( nonNull(failure) ) {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            if ( cause instanceof TimeoutException ) {
+                this.timedOut.increment();
+                log.warn("launch is not finished in " + this.timeoutMillis + " ms " + target);
+            }
+            else {
+                this.failed.increment();
+                log.error("launch failed " + target, cause);
+            }
+        }
+        else if ( invocation.fail ) {
+            this.failed.increment();
+            log.info(invocation.name() + " " + target);
+        }
+    }
+
+    public static boolean isSuccessful(FileInvoker.Invocation invocation, Throwable failure) {
+        return isNull(failure) && ! invocation.fail;
+    }
+
+    @Override
+    public String toString() {
+        return "Launches{" +
+                "launched=" + this.launched.sum() +
+                ", deduplicated=" + this.deduplicated.sum() +
+                ", unresolved=" + this.unresolved.sum() +
+                ", failed=" + this.failed.sum() +
+                ", timedOut=" + this.timedOut.sum() +
+                ", " + this.plans +
+                '}';
+    }
+}
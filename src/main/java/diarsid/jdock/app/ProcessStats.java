@@ -0,0 +1,120 @@
+package diarsid.jdock.app;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/*
+ * Thread and memory stats of the process. Java thread count covers platform threads
+ * only, virtual threads are not counted by ThreadMXBean. Resident memory is read from
+ * /proc on Linux, from working set reported by tasklist on Windows and from ps elsewhere.
+ */
+class ProcessStats {
+
+    private static final double KB_IN_MB = 1024.0;
+    private static final double BYTES_IN_MB = 1024.0 * 1024.0;
+    private static final Path PROC_STATUS = Paths.get("/proc/self/status");
+    private static final String OS = System.getProperty("os.name").toLowerCase();
+    private static final long COMMAND_TIMEOUT_SECONDS = 5;
+
+    private ProcessStats() {}
+
+    static String describe() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+
+        return format("platform threads: %s (peak %s, daemon %s), OS threads: %s, heap: %.1f/%.1f MB, non-heap: %.1f MB, resident: %s",
+                threads.getThreadCount(),
+                threads.getPeakThreadCount(),
+                threads.getDaemonThreadCount(),
+                osThreads(),
+                heap.getUsed() / BYTES_IN_MB,
+                heap.getCommitted() / BYTES_IN_MB,
+                nonHeap.getCommitted() / BYTES_IN_MB,
+                residentMemory());
+    }
+
+    private static String osThreads() {
+        String threads = procStatus("Threads:");
+        return threads.isEmpty() ? "n/a" : threads;
+    }
+
+    private static String residentMemory() {
+        long kb = residentKb();
+        return kb > 0 ? format("%.1f MB", kb / KB_IN_MB) : "n/a";
+    }
+
+    private static long residentKb() {
+        try {
+            if ( OS.startsWith("linux") ) {
+                /* "VmRSS:     123456 kB" */
+                return Long.parseLong(procStatus("VmRSS:").replaceAll("\\D", ""));
+            }
+
+            long pid = ProcessHandle.current().pid();
+            if ( OS.startsWith("windows") ) {
+                /* "java.exe","1234","Console","1","123,456 K" */
+                String line = firstLineOf("tasklist", "/FI", "PID eq " + pid, "/FO", "CSV", "/NH");
+                String[] columns = line.split("\",\"");
+                return Long.parseLong(columns[columns.length - 1].replaceAll("\\D", ""));
+            }
+
+            /* "123456" */
+            return Long.parseLong(firstLineOf("ps", "-o", "rss=", "-p", String.valueOf(pid)).trim());
+        }
+        catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static String procStatus(String field) {
+        try {
+            if ( ! Files.isReadable(PROC_STATUS) ) {
+                return "";
+            }
+            List<String> lines = Files.readAllLines(PROC_STATUS);
+            for ( String line : lines ) {
+                if ( line.startsWith(field) ) {
+                    return line.substring(field.length()).trim();
+                }
+            }
+            return "";
+        }
+        catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static String firstLineOf(String... command) throws IOException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = output.readLine();
+            if ( ! process.waitFor(COMMAND_TIMEOUT_SECONDS, SECONDS) ) {
+                process.destroyForcibly();
+            }
+            if ( isNull(line) ) {
+                throw new IOException("no output of " + command[0]);
+            }
+            return line;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
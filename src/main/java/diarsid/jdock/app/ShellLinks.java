@@ -0,0 +1,106 @@
+package diarsid.jdock.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static java.util.Objects.isNull;
+
+/*
+ * Reads local target path of Windows shell link (.lnk) as described in MS-SHLLINK.
+ * Only plain links are followed: link with arguments or working directory
+ * has to be invoked as is, otherwise they would be lost.
+ */
+final class ShellLinks {
+
+    private static final int HEADER_SIZE = 0x4C;
+    private static final int HAS_LINK_TARGET_ID_LIST = 0x01;
+    private static final int HAS_LINK_INFO = 0x02;
+    private static final int HAS_WORKING_DIR = 0x10;
+    private static final int HAS_ARGUMENTS = 0x20;
+    private static final int VOLUME_ID_AND_LOCAL_BASE_PATH = 0x01;
+    private static final int MAX_LINK_BYTES = 64 * 1024;
+
+    /* link paths are stored in system ANSI code page, which is what JDK uses for file names */
+    private static final Charset ANSI = ansiCharset();
+
+    private ShellLinks() {}
+
+    static boolean isShellLink(Path path) {
+        return path.getFileName().toString().toLowerCase().endsWith(".lnk");
+    }
+
+    static Path targetOf(Path link) {
+        try {
+            if ( Files.size(link) > MAX_LINK_BYTES ) {
+                return null;
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(link)).order(ByteOrder.LITTLE_ENDIAN);
+            return targetOf(bytes);
+        }
+        catch (IOException | RuntimeException e) {
+            /* malformed link is not followed, it is left to the OS */
+            return null;
+        }
+    }
+
+    private static Path targetOf(ByteBuffer bytes) {
+        if ( bytes.limit() < HEADER_SIZE || bytes.getInt(0) != HEADER_SIZE ) {
+            return null;
+        }
+
+        int flags = bytes.getInt(0x14);
+        if ( (flags & (HAS_ARGUMENTS | HAS_WORKING_DIR)) != 0 || (flags & HAS_LINK_INFO) == 0 ) {
+            return null;
+        }
+
+        int linkInfo = HEADER_SIZE;
+        if ( (flags & HAS_LINK_TARGET_ID_LIST) != 0 ) {
+            linkInfo += 2 + Short.toUnsignedInt(bytes.getShort(HEADER_SIZE));
+        }
+
+        int linkInfoFlags = bytes.getInt(linkInfo + 8);
+        if ( (linkInfoFlags & VOLUME_ID_AND_LOCAL_BASE_PATH) == 0 ) {
+            return null;
+        }
+
+        String basePath = stringAt(bytes, linkInfo + bytes.getInt(linkInfo + 16));
+        String suffix = stringAt(bytes, linkInfo + bytes.getInt(linkInfo + 24));
+        if ( basePath.isEmpty() ) {
+            return null;
+        }
+
+        try {
+            return Paths.get(basePath + suffix).toAbsolutePath().normalize();
+        }
+        catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static String stringAt(ByteBuffer bytes, int offset) {
+        int end = offset;
+        while ( bytes.get(end) != 0 ) {
+            end++;
+        }
+        byte[] string = new byte[end - offset];
+        bytes.position(offset);
+        bytes.get(string);
+        return new String(string, ANSI);
+    }
+
+    private static Charset ansiCharset() {
+        String name = System.getProperty("sun.jnu.encoding");
+        try {
+            return isNull(name) ? Charset.defaultCharset() : Charset.forName(name);
+        }
+        catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package diarsid.jdock.jfx;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.stage.Stage;
+
+import diarsid.support.concurrency.threads.NamedThreadSource;
+
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class AlwaysOnTopKeeper {
+
+    private final Map<Stage, InvalidationListener[]> stages;
+    private final ScheduledExecutorService ticking;
+    private final LongAdder checks;
+    private final LongAdder reasserts;
+    private volatile boolean isPaused;
+
+    public AlwaysOnTopKeeper(NamedThreadSource namedThreadSource, long fallbackTickSeconds) {
+        this.stages = new IdentityHashMap<>();
+        this.checks = new LongAdder();
+        this.reasserts = new LongAdder();
+        this.isPaused = false;
+        this.ticking = namedThreadSource.newNamedScheduledExecutorService("always-on-top", 1);
+        this.ticking.scheduleAtFixedRate(
+                () -> {
+                    if ( ! this.isPaused ) {
+                        Platform.runLater(this::reassertAll);
+                    }
+                },
+                fallbackTickSeconds, fallbackTickSeconds, SECONDS);
+    }
+
+    public void keep(Stage stage) {
+        if ( this.stages.containsKey(stage) ) {
+            return;
+        }
+
+        /*
+         * Flag is dropped by someone else - restore it. Window is shown or has lost focus
+         * to another window - flag may still be true while OS has already placed that window
+         * above the dock, so z-order has to be re-asserted explicitly.
+         */
+        InvalidationListener onFlag = observable -> Platform.runLater(() -> this.check(stage));
+        InvalidationListener onShowing = observable -> {
+            if ( stage.isShowing() ) {
+                Platform.runLater(() -> this.reassert(stage));
+            }
+        };
+        InvalidationListener onFocus = observable -> {
+            if ( ! stage.isFocused() ) {
+                Platform.runLater(() -> this.reassert(stage));
+            }
+        };
+        stage.alwaysOnTopProperty().addListener(onFlag);
+        stage.showingProperty().addListener(onShowing);
+        stage.focusedProperty().addListener(onFocus);
+        this.stages.put(stage, new InvalidationListener[] { onFlag, onShowing, onFocus });
+
+        this.reassert(stage);
+    }
+
+    public void release(Stage stage) {
+        InvalidationListener[] listeners = this.stages.remove(stage);
+        if ( nonNull(listeners) ) {
+            stage.alwaysOnTopProperty().removeListener(listeners[0]);
+            stage.showingProperty().removeListener(listeners[1]);
+            stage.focusedProperty().removeListener(listeners[2]);
+        }
+    }
+
+    public void pause() {
+        this.isPaused = true;
+    }
+
+    public void resume() {
+        this.isPaused = false;
+        Platform.runLater(this::reassertAll);
+    }
+
+    private void reassertAll() {
+        for ( Stage stage : new ArrayList<>(this.stages.keySet()) ) {
+            this.reassert(stage);
+        }
+    }
+
+    private boolean isKept(Stage stage) {
+        return ! this.isPaused && stage.isShowing() && this.stages.containsKey(stage);
+    }
+
+    private void check(Stage stage) {
+        if ( ! this.isKept(stage) ) {
+            return;
+        }
+
+        this.checks.increment();
+        if ( ! stage.isAlwaysOnTop() ) {
+            this.reassert(stage);
+        }
+    }
+
+    private void reassert(Stage stage) {
+        if ( ! this.isKept(stage) ) {
+            return;
+        }
+
+        /*
+         * Setting alwaysOnTop to the value it already has is a no-op for the native window,
+         * so flag is toggled to make OS put the window on top of z-order again.
+         */
+        stage.setAlwaysOnTop(false);
+        stage.setAlwaysOnTop(true);
+        stage.toFront();
+        this.reasserts.increment();
+    }
+
+    public long checksCount() {
+        return this.checks.sum();
+    }
+
+    public long reassertsCount() {
+        return this.reasserts.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AlwaysOnTopKeeper{" +
+                "stages=" + this.stages.size() +
+                ", checks=" + this.checksCount() +
+                ", reasserts=" + this.reassertsCount() +
+                ", paused=" + this.isPaused +
+                '}';
+    }
+}
@@ -1,40 +1,78 @@
 package diarsid.jdock.jfx;
 
-import java.awt.MouseInfo;
-import java.awt.Point;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import javafx.animation.Animation;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleConsumer;
 import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.scene.CacheHint;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 
 import diarsid.jdock.app.DockApp;
+import diarsid.jdock.app.Launches;
 import diarsid.jdock.json.ConfigJson;
+import diarsid.jdock.json.DockChrome;
+import diarsid.jdock.json.DockLayout;
 import diarsid.jdock.json.DockMove;
+import diarsid.jdock.json.DockWindows;
+import diarsid.jdock.json.IconEffects;
+import diarsid.jdock.json.IconsRendering;
 import diarsid.jdock.json.ItemJson;
+import diarsid.jdock.json.ScreensJson;
+import diarsid.jdock.json.SettingsJson;
+import diarsid.jdock.model.DockLatencies;
 import diarsid.jdock.model.DockPosition;
 import diarsid.jdock.model.DockSession;
 import diarsid.support.filesystem.FileInvoker;
-import diarsid.support.filesystem.InvokeException;
-import diarsid.support.javafx.StageAlwaysOnTopKeeper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static java.lang.String.format;
+import static java.util.Collections.newSetFromMap;
 import static java.util.Objects.isNull;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.Objects.nonNull;
 import static javafx.css.PseudoClass.getPseudoClass;
 
+import static diarsid.jdock.json.DockChrome.CACHED;
+import static diarsid.jdock.json.DockLayout.PLAIN;
+import static diarsid.jdock.json.DockLayout.VIRTUAL;
+import static diarsid.jdock.json.DockMove.INSTANT;
+import static diarsid.jdock.json.DockMove.REVEAL;
 import static diarsid.jdock.json.DockMove.SMOOTH;
+import static diarsid.jdock.json.IconEffects.LIVE;
+import static diarsid.jdock.json.IconsRendering.ATLAS;
+import static diarsid.jdock.json.IconsRendering.SEPARATE;
+import static diarsid.jdock.model.DockLatencies.Phase.ACTIVATION_TO_SHOW;
+import static diarsid.jdock.model.DockLatencies.Phase.DEACTIVATION_TO_HIDE;
+import static diarsid.jdock.model.DockLatencies.Phase.FIRST_PULSE_TO_SHOWN;
+import static diarsid.jdock.model.DockLatencies.Phase.HIDE_TO_HIDDEN;
+import static diarsid.jdock.model.DockLatencies.Phase.SHOW_TO_FIRST_PULSE;
+import static diarsid.jdock.model.DockLatencies.Phase.TOUCH_TO_ACTIVATION;
+import static diarsid.jdock.model.DockLatencies.Phase.TOUCH_TO_SHOWN;
 import static diarsid.jdock.model.DockOrientation.VERTICAL;
 
 public class Dock {
@@ -42,29 +80,65 @@ public class Dock {
     private static final Logger log = LoggerFactory.getLogger(Dock.class);
 
     public static final DockMove DEFAULT_MOVE = SMOOTH;
+    public static final DockChrome DEFAULT_CHROME = DockChrome.LIVE;
     public static final double DEFAULT_SHOW_TIME = 0.1;
     public static final double DEFAULT_HIDE_TIME = 0.08;
 
+    private static final PseudoClass SCROLLABLE = getPseudoClass("scrollable");
+    private static final PseudoClass CHROME_CACHED = getPseudoClass("chrome-cached");
+
     private final Stage stageForDock;
     private final Stage stageForFold;
     private final Scene sceneForDock;
     private final Scene sceneForFold;
     private final HBox dockPadding;
     private final Pane dock;
+    private final Region chrome;
+    private final StackPane content;
+    private final Rectangle contentClip;
     private final Label fold;
-    private final StageAlwaysOnTopKeeper onTopKeeper;
+    private final PointerTracking pointer;
     public final DockApp app;
     public final DockPosition position;
     public final DockSession session;
     public final ContextMenuForDock contextMenuDock;
     public final ContextMenuForFold contextMenuFold;
+    private final List<ItemIcon> icons;
+    final IconsAtlas<ItemIcon> atlas;
+    private final PulseMeter pulseMeter;
+    private final PulseMeter hoverPulseMeter;
+    private ItemJson[] items;
+    private SettingsJson settings;
+    private boolean isConfigured;
+    private DockLayout layout;
+    private IconsRendering rendering;
+    private DockChrome chromeMode;
+    private int virtualOffset;
+    private boolean resizePending;
     private DockMove move;
-    private Animation showSmoothly;
-    private Animation hideSmoothly;
+    private Integer screenIndex;
+    private Rectangle2D screen;
+    private Rectangle2D hidingArea;
+    private final DockWindows windows;
+    private final DockMotion motion;
+    private final DoubleConsumer stageAxis;
+    private final DoubleConsumer contentAxis;
+    private long foldTouchedNanos;
+    private long showNanos;
+    private long firstPulseNanos;
+    private long hideNanos;
 
     public Dock(DockPosition position, DockApp app) {
         this.position = position;
         this.app = app;
+        this.icons = new ArrayList<>();
+        this.atlas = new IconsAtlas<>(ItemIcon::showAtlasViewports);
+        this.pulseMeter = new PulseMeter();
+        this.hoverPulseMeter = new PulseMeter();
+        this.isConfigured = false;
+        this.screenIndex = this.screenIndexOf(app.config.get().getSettings());
+        this.locateScreen();
+        this.windows = windowsOf(app.config.get().getSettings());
 
         this.stageForDock = new Stage();
         this.stageForDock.initStyle(StageStyle.TRANSPARENT);
@@ -74,13 +148,18 @@ public class Dock {
         this.stageForDock.setResizable(true);
         this.stageForDock.initOwner(app.hiddenStages.newHiddenStageFor(this.stageForDock));
 
-        this.stageForFold = new Stage();
-        this.stageForFold.initStyle(StageStyle.TRANSPARENT);
-        this.stageForFold.setAlwaysOnTop(true);
-        this.stageForFold.setMinWidth(1);
-        this.stageForFold.setMinHeight(1);
-        this.stageForFold.setResizable(true);
-        this.stageForFold.initOwner(app.hiddenStages.newHiddenStageFor(this.stageForFold));
+        if ( this.isSingleWindow() ) {
+            this.stageForFold = this.stageForDock;
+        }
+        else {
+            this.stageForFold = new Stage();
+            this.stageForFold.initStyle(StageStyle.TRANSPARENT);
+            this.stageForFold.setAlwaysOnTop(true);
+            this.stageForFold.setMinWidth(1);
+            this.stageForFold.setMinHeight(1);
+            this.stageForFold.setResizable(true);
+            this.stageForFold.initOwner(app.hiddenStages.newHiddenStageFor(this.stageForFold));
+        }
 
         Pane dockPane;
         this.fold = new Label();
@@ -102,15 +181,24 @@ public class Dock {
         this.dock.setVisible(false);
         this.dock.pseudoClassStateChanged(getPseudoClass(position.name().toLowerCase()), true);
 
+        this.chrome = new Region();
+        this.chrome.getStyleClass().add("dock-chrome");
+        this.chrome.pseudoClassStateChanged(getPseudoClass(position.name().toLowerCase()), true);
+        this.chrome.setVisible(false);
+
         this.dockPadding = new HBox();
-        this.dockPadding.getChildren().add(this.dock);
+        this.content = new StackPane(this.chrome, this.dock);
+        this.contentClip = new Rectangle();
+        this.contentClip.widthProperty().bind(this.dockPadding.widthProperty());
+        this.contentClip.heightProperty().bind(this.dockPadding.heightProperty());
+        this.dockPadding.getChildren().add(this.content);
         this.dockPadding.getStyleClass().add("dock-margin");
         this.dockPadding.pseudoClassStateChanged(getPseudoClass(position.name().toLowerCase()), true);
         this.dockPadding.setAlignment(Pos.CENTER);
 
         this.fold.setVisible(true);
 
-        this.session = new DockSession(position, app.namedThreadSource, this::showDock, this::tryHideDock, this::canFinishSession);
+        this.session = new DockSession(app.sessionTimers, this::showDock, this::tryHideDock, this::canFinishSession);
 
         this.fold.setOnMouseEntered(this::foldTouched);
         this.fold.setOnMouseMoved(this::foldTouched);
@@ -123,8 +211,41 @@ public class Dock {
             session.touch();
         });
 
-        this.sceneForDock = new Scene(this.dockPadding);
-        this.sceneForFold = new Scene(this.fold);
+        this.dock.setOnScroll(this::onScroll);
+
+        this.dock.hoverProperty().addListener((observable, oldValue, newValue) -> {
+            if ( newValue ) {
+                this.beginPulseMetering(this.hoverPulseMeter, "hover");
+            }
+            else {
+                this.hoverPulseMeter.end();
+            }
+        });
+
+        if ( this.isSingleWindow() ) {
+            /*
+             * Fold and dock share one window: the fold is a region at the screen edge,
+             * the dock takes no space while folded and the window is moved only while
+             * the dock is visible.
+             */
+            StackPane foldAndDock = new StackPane(this.dockPadding, this.fold);
+            foldAndDock.setAlignment(foldAlignmentOf(this.position));
+            this.dockPadding.managedProperty().bind(this.dock.visibleProperty());
+            this.sceneForDock = new Scene(foldAndDock);
+            this.sceneForFold = this.sceneForDock;
+        }
+        else {
+            this.sceneForDock = new Scene(this.dockPadding);
+            this.sceneForFold = new Scene(this.fold);
+        }
+        this.stageAxis = this.position.movingAxisOf(this.stageForDock);
+        this.contentAxis = this.position.movingTranslateOf(this.content);
+        this.motion = new DockMotion(
+                this::moveTo,
+                this::onMotionStarted,
+                this::onDockShown,
+                this::onDockHidden);
+        this.pointer = new PointerTracking(this.stageForDock, this.sceneForDock, this.stageForFold, this.sceneForFold);
 
         if ( this.position.dockOrientation == VERTICAL ) {
             this.fold.prefHeightProperty().bind(this.dockPadding.heightProperty());
@@ -133,9 +254,9 @@ public class Dock {
             this.fold.minWidthProperty().bind(this.dockPadding.widthProperty());
         }
 
-        String name = position.name().toLowerCase();
-        this.onTopKeeper = new StageAlwaysOnTopKeeper(name, this.stageForDock, app.namedThreadSource.namedThreadFactory(name), 1, SECONDS);
-        this.onTopKeeper.startWork();
+        this.app.onTopKeeper.keep(this.stageForDock);
+        this.app.onTopKeeper.keep(this.stageForFold);
+        this.app.screens.onChange(this::screensChanged);
 
         this.contextMenuDock = new ContextMenuForDock(this);
         this.contextMenuDock.setAutoHide(true);
@@ -170,24 +291,22 @@ public class Dock {
         this.sceneForDock.setFill(Color.TRANSPARENT);
         this.sceneForDock.getStylesheets().add("file:./jdock-style.css");
 
-        this.sceneForFold.setFill(Color.TRANSPARENT);
-        this.sceneForFold.getStylesheets().add("file:./jdock-style.css");
+        if ( ! this.isSingleWindow() ) {
+            this.sceneForFold.setFill(Color.TRANSPARENT);
+            this.sceneForFold.getStylesheets().add("file:./jdock-style.css");
+        }
 
         final ConfigJson config = this.app.config.get();
 
-        List<Label> icons = new ArrayList<>();
-        ItemJson[] items = config.getDocks().get(this.position);
-        ItemIcon icon;
-        Item item;
-        for ( int i = 0; i < items.length; i++ )  {
-            item = new Item(this.position, i, items[i]);
-            icon = new ItemIcon(this, item, this::onInvocation);
-            icons.add(icon.iconLabel);
-        }
+        this.layout = layoutOf(config.getSettings());
+        this.rendering = renderingOf(config.getSettings());
+        this.applyChrome(config.getSettings());
+        this.createIcons(config.getDocks().get(this.position), config.getSettings());
+        this.settings = config.getSettings();
 
         this.setFoldThick(config.getSettings().getFoldThick());
+        this.fitFoldedDock();
 
-        this.dock.getChildren().addAll(icons);
         this.stageForDock.setScene(sceneForDock);
         this.stageForDock.sizeToScene();
 
@@ -197,64 +316,646 @@ public class Dock {
         this.stageForDock.show();
         this.stageForFold.show();
 
-        this.position.assignHiddenXY(this.stageForDock);
-        this.position.assignShownXY(this.stageForFold);
+        this.position.assignHiddenXY(this.stageForDock, this.hidingArea);
+        this.position.assignShownXY(this.stageForFold, this.screen);
+
+        this.applyMove(config.getSettings());
+        this.applyMotionTimes(config.getSettings());
+        this.motion.jumpToHidden();
+        this.applyMotionEndpoints();
+        this.isConfigured = true;
+        this.applyItemStatuses();
+    }
+
+    private static DockLayout layoutOf(SettingsJson settings) {
+        DockLayout layout = settings.getLayout();
+        if ( isNull(layout) ) {
+            layout = PLAIN;
+        }
+        return layout;
+    }
+
+    private static IconsRendering renderingOf(SettingsJson settings) {
+        IconsRendering rendering = settings.getRendering();
+        if ( isNull(rendering) ) {
+            rendering = SEPARATE;
+        }
+        return rendering;
+    }
+
+    /*
+     * LIVE chrome is styled on .dock itself, as stylesheets always did. CACHED chrome is
+     * opted in: .dock:chrome-cached drops its chrome and .dock-chrome region under icons
+     * renders it once into a cached bitmap.
+     */
+    private void applyChrome(SettingsJson settings) {
+        DockChrome chromeMode = settings.getChrome();
+        if ( isNull(chromeMode) ) {
+            chromeMode = DEFAULT_CHROME;
+        }
+        this.chromeMode = chromeMode;
+
+        boolean cached = chromeMode == CACHED;
+        this.dock.pseudoClassStateChanged(CHROME_CACHED, cached);
+        this.chrome.setCache(cached);
+        this.chrome.setCacheHint(cached ? CacheHint.SPEED : CacheHint.DEFAULT);
+        this.chrome.visibleProperty().unbind();
+        if ( cached ) {
+            this.chrome.visibleProperty().bind(this.dock.visibleProperty());
+        }
+        else {
+            this.chrome.setVisible(false);
+        }
+    }
+
+    static IconEffects effectsOf(SettingsJson settings) {
+        IconEffects effects = settings.getEffects();
+        if ( isNull(effects) ) {
+            effects = LIVE;
+        }
+        return effects;
+    }
+
+    private static DockWindows windowsOf(SettingsJson settings) {
+        DockWindows windows = settings.getWindows();
+        if ( isNull(windows) ) {
+            windows = DockWindows.SEPARATE;
+        }
+        return windows;
+    }
+
+    private static Pos foldAlignmentOf(DockPosition position) {
+        switch ( position ) {
+            case TOP: return Pos.TOP_CENTER;
+            case RIGHT: return Pos.CENTER_RIGHT;
+            case BOTTOM: return Pos.BOTTOM_CENTER;
+            case LEFT: return Pos.CENTER_LEFT;
+            default: throw position.unsupported();
+        }
+    }
+
+    private boolean isSingleWindow() {
+        return this.windows == DockWindows.SINGLE;
+    }
+
+    /*
+     * Each stage has its own hidden owner stage.
+     */
+    public int nativeWindows() {
+        return this.isSingleWindow() ? 2 : 4;
+    }
+
+    private Integer screenIndexOf(SettingsJson settings) {
+        ScreensJson screens = settings.getScreens();
+        if ( isNull(screens) ) {
+            return null;
+        }
+        return screens.get(this.position);
+    }
+
+    /*
+     * Dock and fold are placed within visual bounds of the screen, hidden dock is placed
+     * beyond its whole bounds.
+     */
+    private void locateScreen() {
+        Rectangle2D bounds = this.app.screens.boundsOf(this.screenIndex);
+        this.screen = this.app.screens.visualBoundsOf(this.screenIndex);
+        this.hidingArea = this.position.hidingAreaOf(bounds, this.screen);
+    }
+
+    double outputScale() {
+        return this.app.screens.outputScaleOf(this.screenIndex);
+    }
+
+    private void screensChanged() {
+        this.locateScreen();
+        if ( ! this.isConfigured ) {
+            return;
+        }
+
+        this.applyMove(this.settings);
+        this.applyMotionTimes(this.settings);
+
+        if ( this.isVirtual() ) {
+            this.applyVirtualItemsChanges(this.items, this.settings);
+        }
+        for ( ItemIcon icon : this.icons ) {
+            icon.applySettings(this.settings);
+        }
+        this.resize();
+    }
+
+    private boolean isVirtual() {
+        return this.layout == VIRTUAL;
+    }
+
+    boolean isAtlasRendering() {
+        return this.rendering == ATLAS;
+    }
+
+    private void createIcons(ItemJson[] items, SettingsJson settings) {
+        this.disposeIcons();
+        this.virtualOffset = 0;
+
+        int count;
+        if ( this.isVirtual() ) {
+            count = Math.min(items.length, this.virtualCapacity(settings));
+        }
+        else {
+            count = items.length;
+        }
+
+        List<Label> iconLabels = new ArrayList<>();
+        ItemIcon icon;
+        Item item;
+        for ( int i = 0; i < count; i++ )  {
+            item = new Item(this.position, i, items[i]);
+            icon = new ItemIcon(this, item, this::onInvocation);
+            this.icons.add(icon);
+            iconLabels.add(icon.iconLabel);
+        }
+        this.items = items;
+
+        this.dock.getChildren().setAll(iconLabels);
+        this.applyScrollable();
+    }
+
+    private int virtualCapacity(SettingsJson settings) {
+        this.dock.applyCss();
+
+        double spacing;
+        if ( this.position.dockOrientation == VERTICAL ) {
+            spacing = ((VBox) this.dock).getSpacing();
+        }
+        else {
+            spacing = ((HBox) this.dock).getSpacing();
+        }
+
+        Insets padding = this.dock.getPadding();
+        Insets margin = this.dockPadding.getPadding();
+        double available;
+        if ( this.position.dockOrientation == VERTICAL ) {
+            available = this.screen.getHeight()
+                    - padding.getTop() - padding.getBottom()
+                    - margin.getTop() - margin.getBottom();
+        }
+        else {
+            available = this.screen.getWidth()
+                    - padding.getLeft() - padding.getRight()
+                    - margin.getLeft() - margin.getRight();
+        }
+
+        int capacity = (int) ((available + spacing) / (settings.getIconSize() + spacing));
+        return Math.max(1, capacity);
+    }
+
+    private boolean applyVirtualItemsChanges(ItemJson[] newItems, SettingsJson newSettings) {
+        int capacity = Math.min(newItems.length, this.virtualCapacity(newSettings));
+        boolean capacityChanged = capacity != this.icons.size();
+
+        this.items = newItems;
+        this.virtualOffset = Math.max(0, Math.min(this.virtualOffset, newItems.length - capacity));
+
+        ItemIcon icon;
+        while ( this.icons.size() > capacity ) {
+            icon = this.icons.remove(this.icons.size() - 1);
+            icon.dispose();
+            this.dock.getChildren().remove(icon.iconLabel);
+        }
+
+        int index;
+        while ( this.icons.size() < capacity ) {
+            index = this.virtualOffset + this.icons.size();
+            icon = new ItemIcon(this, new Item(this.position, index, newItems[index]), this::onInvocation);
+            this.icons.add(icon);
+            this.dock.getChildren().add(icon.iconLabel);
+        }
+
+        boolean rebound = this.bindVirtualIcons();
+        this.applyScrollable();
+
+        return capacityChanged || rebound;
+    }
+
+    private boolean bindVirtualIcons() {
+        boolean anyChanged = false;
+        ItemIcon icon;
+        Item item;
+        for ( int i = 0; i < this.icons.size(); i++ ) {
+            icon = this.icons.get(i);
+            item = new Item(this.position, this.virtualOffset + i, this.items[this.virtualOffset + i]);
+            if ( icon.item().hasSameContentAs(item) ) {
+                if ( icon.item().index != item.index ) {
+                    icon.moveTo(item.index);
+                }
+            }
+            else {
+                icon.change(item);
+                anyChanged = true;
+            }
+        }
+        return anyChanged;
+    }
+
+    private void onScroll(ScrollEvent event) {
+        if ( ! this.isVirtual() ) {
+            return;
+        }
+
+        double delta = event.getDeltaY() == 0 ? event.getDeltaX() : event.getDeltaY();
+        if ( delta < 0 ) {
+            this.scrollVirtualIcons(1);
+        }
+        else if ( delta > 0 ) {
+            this.scrollVirtualIcons(-1);
+        }
+        event.consume();
+    }
+
+    private void scrollVirtualIcons(int step) {
+        int capacity = this.icons.size();
+        int maxOffset = this.items.length - capacity;
+        int newOffset = Math.max(0, Math.min(this.virtualOffset + step, maxOffset));
+        int shift = newOffset - this.virtualOffset;
+        if ( shift == 0 ) {
+            return;
+        }
+
+        this.virtualOffset = newOffset;
+
+        if ( Math.abs(shift) < capacity ) {
+            ItemIcon recycled;
+            if ( shift > 0 ) {
+                for ( int i = 0; i < shift; i++ ) {
+                    recycled = this.icons.remove(0);
+                    this.icons.add(recycled);
+                    this.dock.getChildren().remove(recycled.iconLabel);
+                    this.dock.getChildren().add(recycled.iconLabel);
+                }
+            }
+            else {
+                for ( int i = 0; i < -shift; i++ ) {
+                    recycled = this.icons.remove(this.icons.size() - 1);
+                    this.icons.add(0, recycled);
+                    this.dock.getChildren().remove(recycled.iconLabel);
+                    this.dock.getChildren().add(0, recycled.iconLabel);
+                }
+            }
+        }
+
+        this.bindVirtualIcons();
+        this.applyScrollable();
+        this.applyItemStatuses();
+    }
+
+    private void applyScrollable() {
+        boolean scrollable = this.icons.size() < this.items.length;
+        this.dock.pseudoClassStateChanged(SCROLLABLE, scrollable);
+        this.chrome.pseudoClassStateChanged(SCROLLABLE, scrollable);
+    }
+
+    void iconImageLoaded() {
+        if ( this.resizePending ) {
+            return;
+        }
+
+        this.resizePending = true;
+        Platform.runLater(() -> {
+            this.resizePending = false;
+            if ( ! this.isConfigured ) {
+                return;
+            }
+            this.resize();
+        });
+    }
+
+    private void resize() {
+        this.fitFoldedDock();
+        this.stageForDock.sizeToScene();
+        this.stageForFold.sizeToScene();
+        if ( this.move != REVEAL ) {
+            this.position.assignCrossAxis(this.stageForDock, this.screen);
+        }
+        else if ( this.dock.isVisible() ) {
+            this.position.assignShownXY(this.stageForDock, this.screen);
+        }
+        else {
+            this.position.assignHiddenXY(this.stageForDock, this.hidingArea);
+        }
+        if ( ! this.isSingleWindow() || ! this.dock.isVisible() ) {
+            this.position.assignShownXY(this.stageForFold, this.screen);
+        }
+        this.applyMotionEndpoints();
+    }
+
+    private void fitFoldedDock() {
+        if ( this.isSingleWindow() && ! this.dock.isVisible() ) {
+            /* not managed while folded, but fold length follows its size */
+            this.dockPadding.applyCss();
+            this.dockPadding.autosize();
+        }
+    }
+
+    private void applyMotionEndpoints() {
+        double hidden = this.position.getHiddenAxisFor(this.stageForDock, this.hidingArea);
+        double shown = this.position.getShownAxisFor(this.stageForDock, this.screen);
+        if ( this.move == REVEAL ) {
+            this.motion.setEndpoints(hidden - shown, 0);
+        }
+        else {
+            this.motion.setEndpoints(hidden, shown);
+        }
+    }
+
+    public void applyItemStatuses() {
+        Item item;
+        for ( ItemIcon icon : this.icons ) {
+            item = icon.item();
+            icon.applyStatus(this.app.itemsValidation.statusOf(item.image, item.target));
+        }
+    }
 
-        this.move = config.getSettings().getMove();
+    private void applyMove(SettingsJson settings) {
+        DockMove oldMove = this.move;
+        this.move = settings.getMove();
         if ( isNull(this.move) ) {
             this.move = SMOOTH;
         }
+        if ( this.move != REVEAL && this.app.screens.hasNeighbourAt(this.screenIndex, this.position) ) {
+            /*
+             * Window hidden beyond an inner edge between screens would be visible on the
+             * neighbouring screen, so here dock is always hidden by clipping in still window.
+             */
+            log.debug(format("%s dock is at inner screen edge, %s move is replaced by %s",
+                    this.position.name().toLowerCase(), this.move, REVEAL));
+            this.move = REVEAL;
+        }
+
+        if ( this.move == REVEAL ) {
+            this.dockPadding.setClip(this.contentClip);
+            if ( oldMove != REVEAL && this.dock.isVisible() ) {
+                this.position.assignShownXY(this.stageForDock, this.screen);
+            }
+        }
+        else {
+            this.dockPadding.setClip(null);
+            this.content.setTranslateX(0);
+            this.content.setTranslateY(0);
+        }
+    }
+
+    /*
+     * REVEAL keeps the window still and slides the content inside of it,
+     * other moves slide the window itself.
+     */
+    private void moveTo(double value) {
+        if ( this.move == REVEAL ) {
+            this.contentAxis.accept(value);
+        }
+        else if ( ! this.isSingleWindow() || this.dock.isVisible() ) {
+            this.stageAxis.accept(value);
+        }
+    }
+
+    private void applyMotionTimes(SettingsJson settings) {
+        /* configured move, INSTANT stays instant when it is replaced by REVEAL */
+        if ( settings.getMove() == INSTANT ) {
+            this.motion.setTimes(0, 0);
+            return;
+        }
 
-        double showTime = config.getSettings().getShowTime();
+        double showTime = settings.getShowTime();
         if ( showTime == 0.0 ) {
             showTime = DEFAULT_SHOW_TIME;
         }
-        this.showSmoothly = this.position.createShowingAnimation(
-                stageForDock,
-                showTime,
-                () -> {
 
-                });
-
-        double hideTime = config.getSettings().getHideTime();
+        double hideTime = settings.getHideTime();
         if ( hideTime == 0.0 ) {
             hideTime = DEFAULT_HIDE_TIME;
         }
-        this.hideSmoothly = this.position.createHidingAnimation(
-                stageForDock,
-                hideTime,
-                () -> {
-                    this.setFoldThick(this.app.config.get().getSettings().getFoldThick());
-                    this.fold.setVisible(true);
-                    this.dock.setVisible(false);
-                    Platform.requestNextPulse();
-                });
+
+        this.motion.setTimes(showTime, hideTime);
+    }
+
+    private void onMotionStarted() {
+        if ( this.move == REVEAL && this.settings.isRevealSnapshot() ) {
+            this.content.setCache(true);
+            this.content.setCacheHint(CacheHint.SPEED);
+        }
+
+        if ( this.showNanos != 0 && ! this.motion.isHiding() ) {
+            this.firstPulseNanos = System.nanoTime();
+            this.recordLatency(SHOW_TO_FIRST_PULSE, this.showNanos, this.firstPulseNanos);
+        }
+    }
+
+    private void onDockShown() {
+        this.pulseMeter.end();
+        this.content.setCache(false);
+
+        long now = System.nanoTime();
+        this.recordLatency(FIRST_PULSE_TO_SHOWN, this.firstPulseNanos, now);
+        this.recordLatency(TOUCH_TO_SHOWN, this.foldTouchedNanos, now);
+        this.foldTouchedNanos = 0;
+        this.showNanos = 0;
+        this.firstPulseNanos = 0;
+    }
+
+    private void onDockHidden() {
+        this.pulseMeter.end();
+        this.content.setCache(false);
+        this.recordLatency(HIDE_TO_HIDDEN, this.hideNanos, System.nanoTime());
+        this.hideNanos = 0;
+        this.setFoldThick(this.app.config.get().getSettings().getFoldThick());
+        this.fold.setVisible(true);
+        this.dock.setVisible(false);
+        if ( this.isSingleWindow() ) {
+            this.resize();
+        }
+        else if ( this.move == REVEAL ) {
+            this.position.assignHiddenXY(this.stageForDock, this.hidingArea);
+        }
+        Platform.requestNextPulse();
     }
 
     public void reconfigure() {
         if ( this.app.config.get().getDocks().get(this.position).length == 0 ) {
             this.deactivate();
         }
-        else  {
-            this.clearAndHide();
-            this.configure();
+        else if ( this.isConfigured ) {
+            this.reconfigureChanges();
+        }
+        else {
+            this.activate();
         }
     }
 
+    private void reconfigureChanges() {
+        final ConfigJson config = this.app.config.get();
+        SettingsJson oldSettings = this.settings;
+        SettingsJson newSettings = config.getSettings();
+
+        Integer newScreenIndex = this.screenIndexOf(newSettings);
+        boolean screenChanged = ! Objects.equals(newScreenIndex, this.screenIndex);
+        if ( screenChanged ) {
+            this.screenIndex = newScreenIndex;
+            this.locateScreen();
+        }
+
+        ItemJson[] newItems = config.getDocks().get(this.position);
+        DockLayout newLayout = layoutOf(newSettings);
+        IconsRendering newRendering = renderingOf(newSettings);
+        boolean itemsChanged;
+        if ( newLayout != this.layout || newRendering != this.rendering ) {
+            this.layout = newLayout;
+            this.rendering = newRendering;
+            this.createIcons(newItems, newSettings);
+            itemsChanged = true;
+        }
+        else if ( this.isVirtual() ) {
+            itemsChanged = this.applyVirtualItemsChanges(newItems, newSettings);
+        }
+        else {
+            itemsChanged = this.applyItemsChanges(newItems);
+        }
+
+        boolean iconsChanged = ! oldSettings.hasSameIconsAs(newSettings) || screenChanged;
+        if ( iconsChanged ) {
+            for ( ItemIcon icon : this.icons ) {
+                icon.applySettings(newSettings);
+            }
+        }
+
+        if ( oldSettings.getFoldThick() != newSettings.getFoldThick() && this.fold.isVisible() ) {
+            this.setFoldThick(newSettings.getFoldThick());
+        }
+
+        this.applyMove(newSettings);
+        this.applyMotionTimes(newSettings);
+        this.applyMotionEndpoints();
+        this.applyChrome(newSettings);
+        this.settings = newSettings;
+
+        if ( itemsChanged || iconsChanged ) {
+            this.resize();
+        }
+
+        this.applyItemStatuses();
+    }
+
+    private boolean applyItemsChanges(ItemJson[] newItems) {
+        ItemJson[] oldItems = this.items;
+
+        Map<ItemJson, Deque<ItemIcon>> iconsByItems = new HashMap<>();
+        for ( int i = 0; i < oldItems.length; i++ ) {
+            iconsByItems
+                    .computeIfAbsent(oldItems[i], itemJson -> new ArrayDeque<>())
+                    .addLast(this.icons.get(i));
+        }
+
+        ItemIcon[] newIcons = new ItemIcon[newItems.length];
+        Set<ItemIcon> reused = newSetFromMap(new IdentityHashMap<>());
+        Deque<ItemIcon> sameItemIcons;
+        ItemIcon icon;
+        int moved = 0;
+        for ( int i = 0; i < newItems.length; i++ ) {
+            sameItemIcons = iconsByItems.get(newItems[i]);
+            if ( nonNull(sameItemIcons) && ! sameItemIcons.isEmpty() ) {
+                icon = sameItemIcons.pollFirst();
+                if ( icon.item().index != i ) {
+                    icon.moveTo(i);
+                    moved++;
+                }
+                newIcons[i] = icon;
+                reused.add(icon);
+            }
+        }
+
+        Deque<ItemIcon> notReused = new ArrayDeque<>();
+        for ( ItemIcon oldIcon : this.icons ) {
+            if ( ! reused.contains(oldIcon) ) {
+                notReused.addLast(oldIcon);
+            }
+        }
+
+        int changed = 0;
+        int added = 0;
+        Item item;
+        for ( int i = 0; i < newItems.length; i++ ) {
+            if ( nonNull(newIcons[i]) ) {
+                continue;
+            }
+
+            item = new Item(this.position, i, newItems[i]);
+            if ( notReused.isEmpty() ) {
+                newIcons[i] = new ItemIcon(this, item, this::onInvocation);
+                added++;
+            }
+            else {
+                icon = notReused.pollFirst();
+                icon.change(item);
+                newIcons[i] = icon;
+                changed++;
+            }
+        }
+
+        int removed = notReused.size();
+        for ( ItemIcon removedIcon : notReused ) {
+            removedIcon.dispose();
+        }
+
+        this.items = newItems;
+        this.icons.clear();
+        List<Label> iconLabels = new ArrayList<>();
+        for ( ItemIcon newIcon : newIcons ) {
+            this.icons.add(newIcon);
+            iconLabels.add(newIcon.iconLabel);
+        }
+
+        boolean orderChanged = ! this.dock.getChildren().equals(iconLabels);
+        if ( orderChanged ) {
+            this.dock.getChildren().setAll(iconLabels);
+        }
+
+        log.info(format("%s dock items - moved: %s, changed: %s, added: %s, removed: %s",
+                this.position.name().toLowerCase(), moved, changed, added, removed));
+
+        return orderChanged || changed > 0;
+    }
+
     private void clearAndHide() {
         this.stageForDock.hide();
         this.stageForFold.hide();
         this.sceneForDock.getStylesheets().remove("file:./jdock-style.css");
-        this.sceneForFold.getStylesheets().remove("file:./jdock-style.css");
+        if ( ! this.isSingleWindow() ) {
+            this.sceneForFold.getStylesheets().remove("file:./jdock-style.css");
+        }
         this.dock.getChildren().clear();
+        this.disposeIcons();
+        this.isConfigured = false;
+    }
+
+    private void disposeIcons() {
+        for ( ItemIcon icon : this.icons ) {
+            icon.dispose();
+        }
+        this.icons.clear();
+        this.atlas.clear();
+
+        if ( this.atlas.rebuilds() > 0 ) {
+            log.debug(format("%s dock atlas - writes: %s, rebuilds: %s",
+                    this.position.name().toLowerCase(), this.atlas.writes(), this.atlas.rebuilds()));
+        }
     }
 
     private void pauseAll() {
-        this.onTopKeeper.pauseWork();
+        this.app.onTopKeeper.release(this.stageForDock);
+        this.app.onTopKeeper.release(this.stageForFold);
     }
 
     private void resumeAll() {
-        this.onTopKeeper.startWork();
+        this.app.onTopKeeper.keep(this.stageForDock);
+        this.app.onTopKeeper.keep(this.stageForFold);
     }
 
     public void deactivate() {
@@ -269,6 +970,9 @@ public class Dock {
 
     private void foldTouched(MouseEvent event) {
         if ( this.app.isFullScreenModeOff() ) {
+            if ( ! this.session.isActive() ) {
+                this.foldTouchedNanos = System.nanoTime();
+            }
             this.session.touch();
         }
     }
@@ -284,23 +988,33 @@ public class Dock {
     private void onInvocation(ItemIcon itemIcon) {
         this.contextMenuDock.hide();
         this.contextMenuFold.hide();
-        try {
-            String target = itemIcon.item.target;
-            FileInvoker.Invocation invocation = this.app.fileInvoker.invoke(target);
-            if ( invocation.fail ) {
-                log.info(invocation.name() + " " + target);
-            }
-        }
-        catch (InvokeException e) {
-            e.printStackTrace();
+        Optional<CompletableFuture<FileInvoker.Invocation>> launch = this.app.launches.launch(itemIcon.item().target);
+        if ( launch.isEmpty() ) {
+            return;
         }
+
+        itemIcon.launchStarted();
+        launch.get().whenComplete((invocation, failure) -> {
+            boolean successful = Launches.isSuccessful(invocation, failure);
+            Platform.runLater(() -> itemIcon.launchFinished(successful));
+        });
     }
 
     private void showDock() {
         if ( this.dock.visibleProperty().get() ) {
+            if ( this.motion.isHiding() ) {
+                this.beginPulseMetering("show");
+                this.motion.show();
+            }
             return;
         }
 
+        this.showNanos = System.nanoTime();
+        this.firstPulseNanos = 0;
+        long activatedNanos = this.session.activatedNanos();
+        this.recordLatency(TOUCH_TO_ACTIVATION, this.foldTouchedNanos, activatedNanos);
+        this.recordLatency(ACTIVATION_TO_SHOW, activatedNanos, this.showNanos);
+
         Platform.requestNextPulse();
         this.fold.setVisible(false);
         this.setFoldThick(0);
@@ -308,13 +1022,15 @@ public class Dock {
         Platform.requestNextPulse();
         this.dock.setVisible(true);
         this.stageForDock.sizeToScene();
-
-        if ( this.move == SMOOTH ) {
-            this.showSmoothly.playFromStart();
+        if ( this.move == REVEAL ) {
+            this.position.assignShownXY(this.stageForDock, this.screen);
         }
         else {
-            this.position.assignShownXY(this.stageForDock);
+            this.position.assignCrossAxis(this.stageForDock, this.screen);
         }
+        this.applyMotionEndpoints();
+        this.beginPulseMetering("show");
+        this.motion.show();
 
         Platform.requestNextPulse();
     }
@@ -342,38 +1058,51 @@ public class Dock {
             this.session.touch();
         }
         else {
+            this.recordLatency(DEACTIVATION_TO_HIDE, this.session.deactivatedNanos(), System.nanoTime());
             this.hideDock();
         }
     }
 
     private void hideDock() {
+        this.hideNanos = System.nanoTime();
         Platform.requestNextPulse();
         this.contextMenuDock.hide();
         this.stageForDock.sizeToScene();
+        this.applyMotionEndpoints();
+        this.beginPulseMetering("hide");
+        this.motion.hide();
+    }
 
-        if ( this.move == SMOOTH ) {
-            this.hideSmoothly.playFromStart();
+    private void beginPulseMetering(String animation) {
+        if ( this.move != INSTANT ) {
+            this.beginPulseMetering(this.pulseMeter, animation);
         }
-        else {
-            this.position.assignHiddenXY(this.stageForDock);
+    }
+
+    /*
+     * Hover has its own meter: pointer enters the dock while it is still showing,
+     * one shared meter would end show metering and mix both animations.
+     */
+    private void beginPulseMetering(PulseMeter meter, String animation) {
+        if ( this.settings.isPulseMetering() ) {
+            meter.begin(format("%s dock %s [%s, %s effects, %s chrome, %s icons]",
+                    this.position.name().toLowerCase(),
+                    animation,
+                    this.rendering,
+                    effectsOf(this.settings),
+                    this.chromeMode,
+                    this.icons.size()));
+        }
+    }
+
+    private void recordLatency(DockLatencies.Phase phase, long fromNanos, long toNanos) {
+        if ( fromNanos != 0 && toNanos >= fromNanos ) {
+            this.app.latencies.of(this.position, phase).record(toNanos - fromNanos);
         }
     }
 
     private boolean canFinishSession() {
-        double x = stageForDock.getX();
-        double y = stageForDock.getY();
-        double x2 = x + stageForDock.getWidth();
-        double y2 = y + stageForDock.getHeight();
-        Point mouse = MouseInfo.getPointerInfo().getLocation();
-        double mX = mouse.getX();
-        double mY = mouse.getY();
-
-        boolean isHover =
-                x <= mX && mX <= x2
-                &&
-                y <= mY && mY <= y2;
-
-        return ! isHover;
+        return ! this.pointer.isInsideDock();
     }
 
 }
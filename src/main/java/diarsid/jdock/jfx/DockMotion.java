@@ -0,0 +1,118 @@
+package diarsid.jdock.jfx;
+
+import java.util.function.DoubleConsumer;
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+
+class DockMotion extends AnimationTimer {
+
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+
+    private final DoubleConsumer axis;
+    private final Runnable onStarted;
+    private final Runnable onShown;
+    private final Runnable onHidden;
+    private double hiddenValue;
+    private double shownValue;
+    private double showNanos;
+    private double hideNanos;
+    private double fraction;
+    private boolean isShowing;
+    private boolean isRunning;
+    private long lastFrameNanos;
+
+    DockMotion(DoubleConsumer axis, Runnable onStarted, Runnable onShown, Runnable onHidden) {
+        this.axis = axis;
+        this.onStarted = onStarted;
+        this.onShown = onShown;
+        this.onHidden = onHidden;
+        this.fraction = 0;
+        this.isShowing = false;
+        this.isRunning = false;
+    }
+
+    void setTimes(double showSeconds, double hideSeconds) {
+        this.showNanos = showSeconds * NANOS_IN_SECOND;
+        this.hideNanos = hideSeconds * NANOS_IN_SECOND;
+    }
+
+    void setEndpoints(double hiddenValue, double shownValue) {
+        this.hiddenValue = hiddenValue;
+        this.shownValue = shownValue;
+        if ( ! this.isRunning ) {
+            this.apply();
+        }
+    }
+
+    void show() {
+        this.moveTowards(true);
+    }
+
+    void hide() {
+        this.moveTowards(false);
+    }
+
+    boolean isHiding() {
+        return this.isRunning && ! this.isShowing;
+    }
+
+    void jumpToHidden() {
+        if ( this.isRunning ) {
+            super.stop();
+            this.isRunning = false;
+        }
+        this.isShowing = false;
+        this.fraction = 0;
+        this.apply();
+    }
+
+    private void moveTowards(boolean showing) {
+        this.isShowing = showing;
+        if ( this.isRunning ) {
+            return;
+        }
+        this.isRunning = true;
+        this.lastFrameNanos = 0;
+        super.start();
+    }
+
+    @Override
+    public void handle(long now) {
+        long elapsed;
+        if ( this.lastFrameNanos == 0 ) {
+            elapsed = 0;
+            this.onStarted.run();
+        }
+        else {
+            elapsed = now - this.lastFrameNanos;
+        }
+        this.lastFrameNanos = now;
+
+        if ( this.isShowing ) {
+            this.fraction = this.showNanos <= 0 ? 1 : Math.min(1, this.fraction + elapsed / this.showNanos);
+        }
+        else {
+            this.fraction = this.hideNanos <= 0 ? 0 : Math.max(0, this.fraction - elapsed / this.hideNanos);
+        }
+
+        this.apply();
+
+        if ( this.isShowing && this.fraction >= 1 ) {
+            this.finish(this.onShown);
+        }
+        else if ( ! this.isShowing && this.fraction <= 0 ) {
+            this.finish(this.onHidden);
+        }
+    }
+
+    private void finish(Runnable onFinished) {
+        super.stop();
+        this.isRunning = false;
+        onFinished.run();
+    }
+
+    private void apply() {
+        double eased = Interpolator.EASE_BOTH.interpolate(0.0, 1.0, this.fraction);
+        this.axis.accept(this.hiddenValue + (this.shownValue - this.hiddenValue) * eased);
+    }
+}
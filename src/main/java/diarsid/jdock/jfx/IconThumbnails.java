@@ -0,0 +1,260 @@
+package diarsid.jdock.jfx;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toList;
+
+class IconThumbnails {
+
+    private static final Logger log = LoggerFactory.getLogger(IconThumbnails.class);
+
+    static final int DEFAULT_CACHE_MB = 16;
+
+    private static final int MAGIC = 0x4A444B54;
+    private static final String EXTENSION = ".argb";
+
+    private final Path directory;
+    private final Object lock;
+    private long maxBytes;
+    private long totalBytes;
+
+    IconThumbnails(Path directory) {
+        this.directory = directory;
+        this.lock = new Object();
+        this.maxBytes = DEFAULT_CACHE_MB * 1024L * 1024L;
+        this.totalBytes = -1;
+    }
+
+    IconThumbnails() {
+        this(Paths.get("./jdock-cache/thumbnails").toAbsolutePath().normalize());
+    }
+
+    void setMaxMb(int maxMb) {
+        if ( maxMb <= 0 ) {
+            maxMb = DEFAULT_CACHE_MB;
+        }
+        synchronized ( this.lock ) {
+            this.maxBytes = maxMb * 1024L * 1024L;
+        }
+    }
+
+    Image thumbnailOf(Path absoluteSource, long modifiedMillis, int pixelSize) {
+        String key = absoluteSource + "|" + modifiedMillis + "|" + pixelSize;
+        Path thumbnailFile = this.fileOf(key, pixelSize);
+
+        Image thumbnail = this.read(thumbnailFile, key);
+        if ( isNull(thumbnail) ) {
+            thumbnail = new Image(absoluteSource.toUri().toString(), 0, pixelSize, true, true, false);
+            if ( thumbnail.isError() ) {
+                return thumbnail;
+            }
+            this.write(thumbnailFile, key, thumbnail);
+        }
+
+        return thumbnail;
+    }
+
+    private Path fileOf(String key, int pixelSize) {
+        CRC32C crc = new CRC32C();
+        crc.update(key.getBytes(UTF_8));
+        return this.directory.resolve(format("%08x-%d%s", crc.getValue(), pixelSize, EXTENSION));
+    }
+
+    private Image read(Path thumbnailFile, String key) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(thumbnailFile)))) {
+            if ( in.readInt() != MAGIC || ! key.equals(in.readUTF()) ) {
+                return null;
+            }
+
+            int width = in.readInt();
+            int height = in.readInt();
+            byte[] bytes = new byte[width * height * Integer.BYTES];
+            in.readFully(bytes);
+            int[] argb = new int[width * height];
+            ByteBuffer.wrap(bytes).asIntBuffer().get(argb);
+
+            WritableImage image = new WritableImage(width, height);
+            image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+
+            Files.setLastModifiedTime(thumbnailFile, FileTime.fromMillis(System.currentTimeMillis()));
+
+            return image;
+        }
+        catch (NoSuchFileException e) {
+            return null;
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("cannot read thumbnail " + thumbnailFile, e);
+            return null;
+        }
+    }
+
+    private void write(Path thumbnailFile, String key, Image image) {
+        PixelReader pixels = image.getPixelReader();
+        if ( isNull(pixels) ) {
+            return;
+        }
+
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int[] argb = new int[width * height];
+        pixels.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+
+        Path tmpFile = null;
+        try {
+            Files.createDirectories(this.directory);
+            /* unique per writer, same thumbnail can be written by several threads at once */
+            tmpFile = Files.createTempFile(this.directory, thumbnailFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(key);
+                out.writeInt(width);
+                out.writeInt(height);
+                ByteBuffer bytes = ByteBuffer.allocate(argb.length * Integer.BYTES);
+                bytes.asIntBuffer().put(argb);
+                out.write(bytes.array());
+            }
+            this.moveAndAdd(tmpFile, thumbnailFile);
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("cannot write thumbnail " + thumbnailFile, e);
+            deleteQuietly(tmpFile);
+        }
+    }
+
+    private void moveAndAdd(Path tmpFile, Path thumbnailFile) throws IOException {
+        long size = Files.size(tmpFile);
+        synchronized ( this.lock ) {
+            long replacedSize = sizeOrZero(thumbnailFile);
+            Files.move(tmpFile, thumbnailFile, REPLACE_EXISTING, ATOMIC_MOVE);
+            this.added(size - replacedSize);
+        }
+    }
+
+    private static long sizeOrZero(Path file) {
+        try {
+            return Files.size(file);
+        }
+        catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if ( isNull(file) ) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            log.debug("cannot delete " + file);
+        }
+    }
+
+    private void added(long size) {
+        synchronized ( this.lock ) {
+            if ( this.totalBytes < 0 ) {
+                this.totalBytes = this.sizeOfAll();
+            }
+            else {
+                this.totalBytes = this.totalBytes + size;
+            }
+
+            if ( this.totalBytes > this.maxBytes ) {
+                this.evict();
+            }
+        }
+    }
+
+    private long sizeOfAll() {
+        long size = 0;
+        for ( Path file : this.listThumbnails() ) {
+            try {
+                size = size + Files.size(file);
+            }
+            catch (IOException e) {
+                log.debug("cannot get size of " + file);
+            }
+        }
+        return size;
+    }
+
+    private void evict() {
+        long evictTo = this.maxBytes * 3 / 4;
+
+        List<Path> byLastUsage = new ArrayList<>(this.listThumbnails());
+        byLastUsage.sort(Comparator.comparing(IconThumbnails::lastModifiedOf));
+
+        long size;
+        int evicted = 0;
+        for ( Path file : byLastUsage ) {
+            if ( this.totalBytes <= evictTo ) {
+                break;
+            }
+            try {
+                size = Files.size(file);
+                Files.deleteIfExists(file);
+                this.totalBytes = this.totalBytes - size;
+                evicted++;
+            }
+            catch (IOException e) {
+                log.debug("cannot evict " + file);
+            }
+        }
+
+        log.info(format("%s thumbnails evicted, %s bytes left", evicted, this.totalBytes));
+    }
+
+    private List<Path> listThumbnails() {
+        if ( ! Files.isDirectory(this.directory) ) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .collect(toList());
+        }
+        catch (IOException e) {
+            log.warn("cannot list " + this.directory, e);
+            return List.of();
+        }
+    }
+
+    private static FileTime lastModifiedOf(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime();
+        }
+        catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
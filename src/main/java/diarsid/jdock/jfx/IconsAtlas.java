@@ -0,0 +1,263 @@
+package diarsid.jdock.jfx;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/*
+ * Packs images of icons into one shared image. Owner of placed images, normally
+ * T, is given its viewports of shared image through ViewportsReceiver.
+ */
+class IconsAtlas<T> {
+
+    private static final int WIDTH = 1024;
+    private static final int INITIAL_ROWS = 2;
+
+    interface ViewportsReceiver<T> {
+
+        void showViewports(T owner, ReadOnlyObjectProperty<Image> image, Rectangle2D[] viewports);
+    }
+
+    private static final class Slot {
+
+        final int x;
+        final int y;
+        final int width;
+        int frameWidth;
+        int usedHeight;
+        Image[] frames;
+
+        Slot(int x, int y, int width) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+        }
+
+        int usedWidth() {
+            return isNull(this.frames) ? 0 : this.frameWidth * this.frames.length;
+        }
+
+        Rectangle2D[] viewports() {
+            Rectangle2D[] viewports = new Rectangle2D[this.frames.length];
+            for ( int i = 0; i < viewports.length; i++ ) {
+                viewports[i] = new Rectangle2D(this.x + i * this.frameWidth, this.y, this.frameWidth, this.usedHeight);
+            }
+            return viewports;
+        }
+    }
+
+    private final ViewportsReceiver<T> receiver;
+    private final ObjectProperty<Image> image;
+    private final Map<T, Slot> slots;
+    private final List<Slot> freeSlots;
+    private WritableImage atlas;
+    private int rowHeight;
+    private int rows;
+    private int cursorX;
+    private int cursorRow;
+    private int writes;
+    private int rebuilds;
+
+    IconsAtlas(ViewportsReceiver<T> receiver) {
+        this.receiver = receiver;
+        this.image = new SimpleObjectProperty<>();
+        this.slots = new IdentityHashMap<>();
+        this.freeSlots = new ArrayList<>();
+        this.atlas = null;
+        this.rowHeight = 0;
+        this.rows = 0;
+    }
+
+    ReadOnlyObjectProperty<Image> image() {
+        return this.image;
+    }
+
+    void place(T icon, Image... frames) {
+        this.release(icon);
+
+        int frameWidth = frameWidthOf(frames);
+        int height = heightOf(frames);
+
+        if ( isNull(this.atlas) || height > this.rowHeight ) {
+            this.rowHeight = Math.max(this.rowHeight, height);
+            Map<T, Image[]> sources = this.sources();
+            sources.put(icon, frames);
+            this.rebuild(sources);
+            return;
+        }
+
+        Slot slot = this.allocate(frameWidth * frames.length);
+        if ( isNull(slot) ) {
+            Map<T, Image[]> sources = this.sources();
+            sources.put(icon, frames);
+            this.rebuild(sources);
+            return;
+        }
+
+        this.write(slot, frames, frameWidth, height);
+        this.slots.put(icon, slot);
+        this.receiver.showViewports(icon, this.image, slot.viewports());
+    }
+
+    void release(T icon) {
+        Slot slot = this.slots.remove(icon);
+        if ( nonNull(slot) ) {
+            this.clear(slot);
+            this.freeSlots.add(slot);
+        }
+    }
+
+    void clear() {
+        this.slots.clear();
+        this.freeSlots.clear();
+        this.atlas = null;
+        this.image.set(null);
+        this.rowHeight = 0;
+        this.rows = 0;
+    }
+
+    int writes() {
+        return this.writes;
+    }
+
+    int rebuilds() {
+        return this.rebuilds;
+    }
+
+    private static int frameWidthOf(Image[] frames) {
+        int frameWidth = 0;
+        for ( Image frame : frames ) {
+            frameWidth = Math.max(frameWidth, (int) Math.ceil(frame.getWidth()));
+        }
+        return Math.min(WIDTH / frames.length, frameWidth);
+    }
+
+    private static int heightOf(Image[] frames) {
+        int height = 0;
+        for ( Image frame : frames ) {
+            height = Math.max(height, (int) Math.ceil(frame.getHeight()));
+        }
+        return height;
+    }
+
+    private Map<T, Image[]> sources() {
+        Map<T, Image[]> sources = new IdentityHashMap<>();
+        for ( Map.Entry<T, Slot> iconAndSlot : this.slots.entrySet() ) {
+            sources.put(iconAndSlot.getKey(), iconAndSlot.getValue().frames);
+        }
+        return sources;
+    }
+
+    private Slot allocate(int width) {
+        Slot bestFit = null;
+        for ( Slot free : this.freeSlots ) {
+            if ( free.width >= width && (isNull(bestFit) || free.width < bestFit.width) ) {
+                bestFit = free;
+            }
+        }
+        if ( nonNull(bestFit) ) {
+            this.freeSlots.remove(bestFit);
+            return bestFit;
+        }
+
+        if ( this.cursorX + width > WIDTH ) {
+            this.cursorRow++;
+            this.cursorX = 0;
+        }
+        if ( this.cursorRow >= this.rows ) {
+            if ( ! this.grow() ) {
+                return null;
+            }
+        }
+
+        Slot slot = new Slot(this.cursorX, this.cursorRow * this.rowHeight, width);
+        this.cursorX = this.cursorX + width;
+        return slot;
+    }
+
+    private boolean grow() {
+        int newRows = this.rows * 2;
+        WritableImage grown = new WritableImage(WIDTH, newRows * this.rowHeight);
+        PixelReader oldPixels = this.atlas.getPixelReader();
+        if ( isNull(oldPixels) ) {
+            return false;
+        }
+        grown.getPixelWriter().setPixels(0, 0, WIDTH, this.rows * this.rowHeight, oldPixels, 0, 0);
+        this.atlas = grown;
+        this.rows = newRows;
+        this.image.set(grown);
+        return true;
+    }
+
+    private void rebuild(Map<T, Image[]> sources) {
+        this.rebuilds++;
+        this.slots.clear();
+        this.freeSlots.clear();
+        this.cursorX = 0;
+        this.cursorRow = 0;
+
+        int neededWidth = 0;
+        for ( Image[] frames : sources.values() ) {
+            neededWidth = neededWidth + frameWidthOf(frames) * frames.length;
+        }
+        this.rows = Math.max(INITIAL_ROWS, neededWidth / WIDTH + 2);
+        this.atlas = new WritableImage(WIDTH, this.rows * this.rowHeight);
+        this.image.set(this.atlas);
+
+        Slot slot;
+        Image[] frames;
+        int frameWidth;
+        for ( Map.Entry<T, Image[]> iconAndFrames : sources.entrySet() ) {
+            frames = iconAndFrames.getValue();
+            frameWidth = frameWidthOf(frames);
+            slot = this.allocate(frameWidth * frames.length);
+            this.write(slot, frames, frameWidth, heightOf(frames));
+            this.slots.put(iconAndFrames.getKey(), slot);
+            this.receiver.showViewports(iconAndFrames.getKey(), this.image, slot.viewports());
+        }
+    }
+
+    private void write(Slot slot, Image[] frames, int frameWidth, int height) {
+        PixelReader pixels;
+        Image frame;
+        for ( int i = 0; i < frames.length; i++ ) {
+            frame = frames[i];
+            pixels = frame.getPixelReader();
+            if ( nonNull(pixels) ) {
+                this.atlas.getPixelWriter().setPixels(
+                        slot.x + i * frameWidth, slot.y,
+                        Math.min(frameWidth, (int) frame.getWidth()), Math.min(height, (int) frame.getHeight()),
+                        pixels, 0, 0);
+            }
+        }
+        slot.frameWidth = frameWidth;
+        slot.usedHeight = height;
+        slot.frames = frames;
+        this.writes++;
+    }
+
+    private void clear(Slot slot) {
+        int usedWidth = slot.usedWidth();
+        if ( nonNull(this.atlas) && usedWidth > 0 ) {
+            int[] transparent = new int[usedWidth * slot.usedHeight];
+            this.atlas.getPixelWriter().setPixels(
+                    slot.x, slot.y, usedWidth, slot.usedHeight,
+                    PixelFormat.getIntArgbInstance(), transparent, 0, usedWidth);
+        }
+        slot.frameWidth = 0;
+        slot.usedHeight = 0;
+        slot.frames = null;
+    }
+}
@@ -0,0 +1,441 @@
+package diarsid.jdock.jfx;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import diarsid.jdock.app.BackgroundThreads;
+import diarsid.jdock.json.ConfigJson;
+import diarsid.jdock.json.ItemJson;
+import diarsid.jdock.json.SettingsJson;
+import diarsid.support.javafx.FilesNativeIconImageExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+import static java.util.Arrays.stream;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toSet;
+
+public class IconsLoading {
+
+    private static final Logger log = LoggerFactory.getLogger(IconsLoading.class);
+
+    private final ExecutorService loading;
+    private final ExecutorService extracting;
+    private final ConcurrentHashMap<String, CompletableFuture<Image>> extractions;
+    private final LongAdder extractionsJoined;
+    private final ConcurrentHashMap<String, CompletableFuture<Image>> decodings;
+    private final LongAdder decodingsJoined;
+    private volatile Set<String> extensionsCached;
+    private final FilesNativeIconImageExtractor imageExtractor;
+    private final IconThumbnails thumbnails;
+    public final ImagesCache cache;
+    private final Image placeholder;
+    private final Image broken;
+    private final LongAdder decoded;
+    private final LongAdder failed;
+    private final LongAdder decodingNanos;
+    private final AtomicLong maxDecodingNanos;
+
+    public IconsLoading(BackgroundThreads backgroundThreads, FilesNativeIconImageExtractor imageExtractor) {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        this.loading = backgroundThreads.blocking("icons-loading", threads);
+        this.extracting = backgroundThreads.blocking("icons-extraction", 2);
+        this.extractions = new ConcurrentHashMap<>();
+        this.extractionsJoined = new LongAdder();
+        this.decodings = new ConcurrentHashMap<>();
+        this.decodingsJoined = new LongAdder();
+        this.extensionsCached = Set.of();
+        this.imageExtractor = imageExtractor;
+        this.thumbnails = new IconThumbnails();
+        this.cache = new ImagesCache();
+        WritableImage placeholder = new WritableImage(1, 1);
+        placeholder.getPixelWriter().setColor(0, 0, Color.rgb(255, 255, 255, 0.15));
+        this.placeholder = placeholder;
+        this.broken = brokenImage();
+        this.decoded = new LongAdder();
+        this.failed = new LongAdder();
+        this.decodingNanos = new LongAdder();
+        this.maxDecodingNanos = new AtomicLong();
+    }
+
+    public void applySettings(SettingsJson settings) {
+        this.thumbnails.setMaxMb(settings.getThumbnailsCacheMb());
+        this.cache.setMaxMb(settings.getImagesCacheMb());
+
+        String[] extensions = settings.getNativeIconsByExtension();
+        if ( isNull(extensions) ) {
+            this.extensionsCached = Set.of();
+        }
+        else {
+            this.extensionsCached = stream(extensions)
+                    .map(extension -> extension.toLowerCase().replace(".", ""))
+                    .collect(toSet());
+        }
+    }
+
+    public Image placeholder() {
+        return this.placeholder;
+    }
+
+    /*
+     * Shown instead of an icon that cannot be loaded, so that the item stays visible.
+     */
+    public Image broken() {
+        return this.broken;
+    }
+
+    private static Image brokenImage() {
+        int size = 16;
+        WritableImage broken = new WritableImage(size, size);
+        Color background = Color.rgb(255, 255, 255, 0.15);
+        Color cross = Color.rgb(255, 60, 60, 0.8);
+        for ( int x = 0; x < size; x++ ) {
+            for ( int y = 0; y < size; y++ ) {
+                if ( Math.abs(x - y) <= 1 || Math.abs(x + y - (size - 1)) <= 1 ) {
+                    broken.getPixelWriter().setColor(x, y, cross);
+                }
+                else {
+                    broken.getPixelWriter().setColor(x, y, background);
+                }
+            }
+        }
+        return broken;
+    }
+
+    public CompletableFuture<Image> load(Item item, int pixelSize) {
+        if ( isNull(item.image) ) {
+            return this.nativeIconOf(item.target);
+        }
+        else {
+            String source = sourceOf(item.image) + "|" + pixelSize + "px";
+            return this.inFlight(
+                    this.decodings, this.decodingsJoined, source, this.loading,
+                    () -> this.decode(item, pixelSize));
+        }
+    }
+
+    /*
+     * Joins the load of the same source if one is already in flight, so that
+     * the same icon used by several items or docks is read and decoded once.
+     */
+    private CompletableFuture<Image> inFlight(
+            ConcurrentHashMap<String, CompletableFuture<Image>> loads,
+            LongAdder joined,
+            String source,
+            Executor executor,
+            Supplier<Image> load) {
+        CompletableFuture<Image> existing = loads.get(source);
+        if ( nonNull(existing) ) {
+            joined.increment();
+            return existing;
+        }
+
+        CompletableFuture<Image> newLoad = new CompletableFuture<>();
+        existing = loads.putIfAbsent(source, newLoad);
+        if ( nonNull(existing) ) {
+            joined.increment();
+            return existing;
+        }
+
+        executor.execute(() -> {
+            try {
+                newLoad.complete(load.get());
+            }
+            catch (Throwable t) {
+                newLoad.completeExceptionally(t);
+            }
+            finally {
+                loads.remove(source, newLoad);
+            }
+        });
+
+        return newLoad;
+    }
+
+    public CompletableFuture<Image[]> loadWithVariants(Item item, int pixelSize, double... brightnesses) {
+        return this.load(item, pixelSize).thenApplyAsync(
+                image -> {
+                    if ( isNull(image) || image.isError() ) {
+                        return new Image[] { image };
+                    }
+                    Image[] images = new Image[brightnesses.length + 1];
+                    images[0] = image;
+                    for ( int i = 0; i < brightnesses.length; i++ ) {
+                        images[i + 1] = this.variantOf(item, pixelSize, image, brightnesses[i]);
+                    }
+                    return images;
+                },
+                this.loading);
+    }
+
+    private Image variantOf(Item item, int pixelSize, Image image, double brightness) {
+        if ( brightness == 0 ) {
+            return image;
+        }
+
+        ImagesCache.Key key;
+        if ( isNull(item.image) ) {
+            key = new ImagesCache.Key(this.nativeSourceOf(item.target) + "|brightness:" + brightness, 0, 0);
+        }
+        else {
+            Path source = sourceOf(item.image);
+            try {
+                key = new ImagesCache.Key(
+                        source + "|brightness:" + brightness, Files.getLastModifiedTime(source).toMillis(), pixelSize);
+            }
+            catch (IOException e) {
+                key = null;
+            }
+        }
+
+        Image variant;
+        if ( nonNull(key) ) {
+            variant = this.cache.get(key);
+            if ( nonNull(variant) ) {
+                return variant;
+            }
+        }
+
+        variant = brightened(image, brightness);
+        if ( nonNull(key) ) {
+            this.cache.put(key, variant);
+        }
+
+        return variant;
+    }
+
+    private static Image brightened(Image image, double brightness) {
+        PixelReader pixels = image.getPixelReader();
+        if ( isNull(pixels) ) {
+            return image;
+        }
+
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int[] argb = new int[width * height];
+        pixels.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+
+        int pixel;
+        int r;
+        int g;
+        int b;
+        int max;
+        int newMax;
+        for ( int i = 0; i < argb.length; i++ ) {
+            pixel = argb[i];
+            r = (pixel >> 16) & 0xFF;
+            g = (pixel >> 8) & 0xFF;
+            b = pixel & 0xFF;
+            max = Math.max(r, Math.max(g, b));
+
+            if ( brightness > 0 ) {
+                newMax = (int) Math.round(max + (255 - max) * brightness);
+            }
+            else {
+                newMax = (int) Math.round(max * (1 + brightness));
+            }
+
+            if ( max == 0 ) {
+                r = newMax;
+                g = newMax;
+                b = newMax;
+            }
+            else {
+                r = r * newMax / max;
+                g = g * newMax / max;
+                b = b * newMax / max;
+            }
+
+            argb[i] = (pixel & 0xFF000000) | (r << 16) | (g << 8) | b;
+        }
+
+        WritableImage variant = new WritableImage(width, height);
+        variant.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+        return variant;
+    }
+
+    public void prefetchNativeIcons(ConfigJson config) {
+        int prefetched = 0;
+        for ( ItemJson[] items : config.getDocks().allNonEmpty().values() ) {
+            for ( ItemJson item : items ) {
+                if ( isNull(item.getIcon()) && nonNull(item.getTarget()) ) {
+                    this.nativeIconOf(item.getTarget());
+                    prefetched++;
+                }
+            }
+        }
+        log.debug(format("%s native icons requested, %s extractions in flight", prefetched, this.extractions.size()));
+    }
+
+    private boolean isCachedByExtension(String extension) {
+        return nonNull(extension) && this.extensionsCached.contains(extension);
+    }
+
+    private String nativeSourceOf(String target) {
+        String extension = extensionOf(target);
+        if ( this.isCachedByExtension(extension) ) {
+            return "native-extension:" + extension;
+        }
+        else {
+            return "native:" + target;
+        }
+    }
+
+    private CompletableFuture<Image> nativeIconOf(String target) {
+        boolean byExtension = this.isCachedByExtension(extensionOf(target));
+        String source = this.nativeSourceOf(target);
+
+        ImagesCache.Key key = new ImagesCache.Key(source, 0, 0);
+        Image cached = this.cache.get(key);
+        if ( nonNull(cached) ) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return this.inFlight(
+                this.extractions, this.extractionsJoined, source, this.extracting,
+                () -> {
+                    Image image = this.extract(target, byExtension);
+                    this.cache.put(key, image);
+                    return image;
+                });
+    }
+
+    private Image extract(String target, boolean byExtension) {
+        long start = System.nanoTime();
+
+        FilesNativeIconImageExtractor.ExtensionCache extensionCache;
+        if ( byExtension ) {
+            extensionCache = FilesNativeIconImageExtractor.ExtensionCache.USE;
+        }
+        else {
+            extensionCache = FilesNativeIconImageExtractor.ExtensionCache.NO_USE;
+        }
+
+        Image image = this.imageExtractor.getFrom(
+                new File(target),
+                FilesNativeIconImageExtractor.PathCache.USE,
+                extensionCache);
+
+        this.measured(target, image, System.nanoTime() - start);
+
+        return image;
+    }
+
+    /*
+     * The same icon file reached through different links or relative paths is one
+     * source for cache and in-flight loads. Missing file has no real path, its
+     * normalized path is used, failing later at read as it would anyway.
+     */
+    private static Path sourceOf(Path image) {
+        try {
+            return image.toRealPath();
+        }
+        catch (IOException e) {
+            return image.toAbsolutePath().normalize();
+        }
+    }
+
+    private static String extensionOf(String target) {
+        if ( isNull(target) ) {
+            return null;
+        }
+
+        int nameStart = Math.max(target.lastIndexOf('/'), target.lastIndexOf('\\')) + 1;
+        int dot = target.lastIndexOf('.');
+        if ( dot <= nameStart || dot == target.length() - 1 ) {
+            return null;
+        }
+
+        return target.substring(dot + 1).toLowerCase();
+    }
+
+    private Image decode(Item item, int pixelSize) {
+        long start = System.nanoTime();
+
+        Path source = sourceOf(item.image);
+        ImagesCache.Key key;
+        try {
+            key = new ImagesCache.Key(
+                    source.toString(), Files.getLastModifiedTime(source).toMillis(), pixelSize);
+        }
+        catch (IOException e) {
+            key = null;
+        }
+
+        Image image;
+        if ( nonNull(key) ) {
+            image = this.cache.get(key);
+            if ( nonNull(image) ) {
+                return image;
+            }
+            image = this.thumbnails.thumbnailOf(source, key.version, pixelSize);
+            this.cache.put(key, image);
+        }
+        else {
+            image = new Image("file:" + item.image.toString(), false);
+        }
+
+        this.measured(item.name, image, System.nanoTime() - start);
+
+        return image;
+    }
+
+    private void measured(String name, Image image, long nanos) {
+        this.decoded.increment();
+        this.decodingNanos.add(nanos);
+        this.maxDecodingNanos.accumulateAndGet(nanos, Math::max);
+
+        if ( isNull(image) || image.isError() ) {
+            this.failed.increment();
+            log.warn(format("cannot decode icon for %s", name));
+        }
+        else {
+            log.debug(format("%s icon decoded in %.2f ms", name, nanos / 1000_000.0));
+        }
+    }
+
+    public long extractionsJoinedCount() {
+        return this.extractionsJoined.sum();
+    }
+
+    public long decodingsJoinedCount() {
+        return this.decodingsJoined.sum();
+    }
+
+    public long decodedCount() {
+        return this.decoded.sum();
+    }
+
+    public long failedCount() {
+        return this.failed.sum();
+    }
+
+    public double averageDecodingMillis() {
+        long count = this.decoded.sum();
+        if ( count == 0 ) {
+            return 0;
+        }
+        return this.decodingNanos.sum() / (double) count / 1000_000.0;
+    }
+
+    public double maxDecodingMillis() {
+        return this.maxDecodingNanos.get() / 1000_000.0;
+    }
+}
@@ -0,0 +1,145 @@
+package diarsid.jdock.jfx;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import javafx.scene.image.Image;
+
+import static java.util.Objects.isNull;
+
+public class ImagesCache {
+
+    public static final int DEFAULT_CACHE_MB = 32;
+
+    public static final class Key {
+
+        public final String source;
+        public final long version;
+        public final int size;
+
+        public Key(String source, long version, int size) {
+            this.source = source;
+            this.version = version;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return version == key.version &&
+                    size == key.size &&
+                    source.equals(key.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, version, size);
+        }
+
+        @Override
+        public String toString() {
+            return source + "[" + size + "px, v" + version + "]";
+        }
+    }
+
+    private final LinkedHashMap<Key, Image> images;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private long maxBytes;
+    private long bytes;
+
+    public ImagesCache() {
+        this.images = new LinkedHashMap<>(64, 0.75f, true);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.maxBytes = DEFAULT_CACHE_MB * 1024L * 1024L;
+        this.bytes = 0;
+    }
+
+    public synchronized void setMaxMb(int maxMb) {
+        if ( maxMb <= 0 ) {
+            maxMb = DEFAULT_CACHE_MB;
+        }
+        this.maxBytes = maxMb * 1024L * 1024L;
+        this.evictOverBudget();
+    }
+
+    public synchronized Image get(Key key) {
+        Image image = this.images.get(key);
+        if ( isNull(image) ) {
+            this.misses.increment();
+        }
+        else {
+            this.hits.increment();
+        }
+        return image;
+    }
+
+    public synchronized void put(Key key, Image image) {
+        if ( isNull(image) || image.isError() ) {
+            return;
+        }
+
+        long imageBytes = bytesOf(image);
+        if ( imageBytes > this.maxBytes ) {
+            return;
+        }
+
+        Image replaced = this.images.put(key, image);
+        if ( ! isNull(replaced) ) {
+            this.bytes = this.bytes - bytesOf(replaced);
+        }
+        this.bytes = this.bytes + imageBytes;
+        this.evictOverBudget();
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<Key, Image>> leastRecentlyUsed = this.images.entrySet().iterator();
+        while ( this.bytes > this.maxBytes && leastRecentlyUsed.hasNext() ) {
+            this.bytes = this.bytes - bytesOf(leastRecentlyUsed.next().getValue());
+            leastRecentlyUsed.remove();
+            this.evictions.increment();
+        }
+    }
+
+    private static long bytesOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4L;
+    }
+
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+    public synchronized long bytes() {
+        return this.bytes;
+    }
+
+    public synchronized int size() {
+        return this.images.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ImagesCache{" +
+                "images=" + this.size() +
+                ", bytes=" + this.bytes() +
+                ", hits=" + this.hits() +
+                ", misses=" + this.misses() +
+                ", evictions=" + this.evictions() +
+                '}';
+    }
+}
@@ -84,6 +84,26 @@ public final class Item implements Comparable<Item> {
         this.target = json.getTarget();
     }
 
+    public Item movedTo(int otherIndex) {
+        return new Item(this.position, otherIndex, this.image, this.name, this.target);
+    }
+
+    public boolean hasSameContentAs(Item other) {
+        return position == other.position &&
+                Objects.equals(image, other.image) &&
+                Objects.equals(name, other.name) &&
+                Objects.equals(target, other.target);
+    }
+
+    public boolean hasSameImageSourceAs(Item other) {
+        if ( isNull(this.image) ) {
+            return isNull(other.image) && Objects.equals(this.target, other.target);
+        }
+        else {
+            return this.image.equals(other.image);
+        }
+    }
+
     @Override
     public int compareTo(Item other) {
         if ( this.index > other.index ) {
@@ -103,10 +123,7 @@ public final class Item implements Comparable<Item> {
         if (!(o instanceof Item)) return false;
         Item item = (Item) o;
         return index == item.index &&
-                position == item.position &&
-                image.equals(item.image) &&
-                name.equals(item.name) &&
-                target.equals(item.target);
+                this.hasSameContentAs(item);
     }
 
     @Override
@@ -1,9 +1,14 @@
 package diarsid.jdock.jfx;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.css.PseudoClass;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tooltip;
@@ -12,24 +17,50 @@ import javafx.scene.effect.Effect;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
+import javafx.util.Duration;
 
-import diarsid.support.javafx.FilesNativeIconImageExtractor;
+import diarsid.jdock.json.IconEffects;
+import diarsid.jdock.json.SettingsJson;
+import diarsid.jdock.model.ItemStatus;
 import diarsid.support.objects.references.Possible;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
+import static diarsid.jdock.json.IconEffects.PRERENDERED;
 import static diarsid.support.objects.references.References.simplePossibleButEmpty;
 
 public final class ItemIcon {
 
+    private static final Logger log = LoggerFactory.getLogger(ItemIcon.class);
+
+    private static final PseudoClass BROKEN = PseudoClass.getPseudoClass("broken");
+    private static final PseudoClass LAUNCHING = PseudoClass.getPseudoClass("launching");
+    private static final PseudoClass LAUNCH_FAILED = PseudoClass.getPseudoClass("launch-failed");
+
+    private static final Duration LAUNCH_FAILED_SHOWN = Duration.millis(2000);
+
+    private static final int NORMAL = 0;
+    private static final int HOVERED = 1;
+    private static final int PRESSED = 2;
+
     private final ImageView icon;
     private final ColorAdjust brighter;
     private final ColorAdjust darker;
     private final Possible<Effect> cssEffect;
+    private final Tooltip tooltip;
+    private PauseTransition launchFailedShown;
     private boolean isHovered;
+    private Item item;
+    private Item loadingItem;
+    private int pixelSize;
+    private IconEffects effects;
+    private Image[] variants;
+    private Rectangle2D[] atlasViewports;
+    private int variant;
     public final Dock dock;
-    public final Item item;
     public final Label iconLabel;
     public final transient List<Process> process;
     public final Consumer<ItemIcon> invocationCallback;
@@ -37,47 +68,48 @@ public final class ItemIcon {
     public ItemIcon(Dock dock, Item item, Consumer<ItemIcon> invocationCallback) {
         this.dock = dock;
         this.item = item;
-        Image image;
-        if ( isNull(item.image) ) {
-            image = dock.app.imageExtractor.getFrom(
-                    new File(item.target),
-                    FilesNativeIconImageExtractor.PathCache.USE,
-                    FilesNativeIconImageExtractor.ExtensionCache.NO_USE);
-        }
-        else {
-            image = new Image("file:" + this.item.image.toString(), false);
-        }
         this.brighter = new ColorAdjust();
         this.darker = new ColorAdjust();
-        this.brighter.setBrightness(dock.app.config.get().getSettings().getIconHoverBrighter());
-        this.darker.setBrightness(dock.app.config.get().getSettings().getIconPressDarker());
 
         this.icon = new ImageView();
-        double iconSize = dock.app.config.get().getSettings().getIconSize();
-        this.icon.setFitHeight(iconSize);
-        this.icon.setFitHeight(iconSize);
         this.icon.setPreserveRatio(true);
-        this.icon.setImage(image);
         this.icon.getStyleClass().add("icon");
+        this.applySettings(dock.app.config.get().getSettings());
+        this.loadImage();
+        this.tooltip = new Tooltip(this.item.name);
         this.iconLabel = new Label();
+        this.iconLabel.getStyleClass().add("item");
         this.iconLabel.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
         this.iconLabel.setGraphic(this.icon);
-        this.iconLabel.setTooltip(new Tooltip(this.item.name));
+        this.iconLabel.setTooltip(this.tooltip);
 
         this.cssEffect = simplePossibleButEmpty();
         this.isHovered = false;
 
         this.iconLabel.hoverProperty().addListener(((observable, oldValue, newValue) -> {
             this.getInitialEffectAtFirstRun();
-            if ( (! oldValue) && newValue ) {
+            boolean isHoveredNow = (! oldValue) && newValue;
+            if ( this.isPrerendered() ) {
+                this.showVariant(isHoveredNow ? HOVERED : NORMAL);
+            }
+            else if ( isHoveredNow ) {
                 this.icon.setEffect(brighter);
             }
             else {
                 this.icon.setEffect(this.cssEffect.or(null));
             }
+            if ( isHoveredNow ) {
+                this.dock.app.launches.prepare(this.item.target);
+            }
         }));
 
         this.iconLabel.setOnMouseMoved(event -> {
+            if ( this.isPrerendered() ) {
+                if ( this.variant == NORMAL ) {
+                    this.showVariant(HOVERED);
+                }
+                return;
+            }
             Effect effect = this.icon.getEffect();
             if ( isNull(effect) ) {
                 this.icon.setEffect(brighter);
@@ -85,17 +117,184 @@ public final class ItemIcon {
         });
 
         this.iconLabel.setOnMousePressed(event -> {
-            this.icon.setEffect(darker);
+            if ( this.isPrerendered() ) {
+                this.showVariant(PRESSED);
+            }
+            else {
+                this.icon.setEffect(darker);
+            }
             this.click(event);
         });
         this.iconLabel.setOnMouseReleased(event -> {
-            this.icon.setEffect(brighter);
+            if ( this.isPrerendered() ) {
+                this.showVariant(HOVERED);
+            }
+            else {
+                this.icon.setEffect(brighter);
+            }
         });
 
         this.process = new ArrayList<>();
         this.invocationCallback = invocationCallback;
     }
 
+    private void loadImage() {
+        Item loading = this.item;
+        this.loadingItem = loading;
+        this.showPlaceholder();
+
+        IconsLoading iconsLoading = this.dock.app.iconsLoading;
+        CompletableFuture<Image[]> loaded;
+        if ( this.isPrerendered() ) {
+            loaded = iconsLoading.loadWithVariants(
+                    loading, this.pixelSize, this.brighter.getBrightness(), this.darker.getBrightness());
+        }
+        else {
+            loaded = iconsLoading.load(loading, this.pixelSize).thenApply(image -> new Image[] { image });
+        }
+
+        loaded.whenComplete((images, failure) -> {
+            if ( nonNull(failure) ) {
+                log.warn("cannot load icon for " + loading.name, failure);
+            }
+            Platform.runLater(() -> {
+                if ( this.loadingItem != loading ) {
+                    return;
+                }
+                Image image = isNull(images) ? null : images[NORMAL];
+                if ( isNull(image) || image.isError() ) {
+                    /* decoding failures are logged by IconsLoading */
+                    this.showImage(this.dock.app.iconsLoading.broken());
+                }
+                else {
+                    this.showImages(images);
+                }
+                this.dock.iconImageLoaded();
+            });
+        });
+    }
+
+    private boolean isPrerendered() {
+        return this.effects == PRERENDERED;
+    }
+
+    private void showImages(Image[] images) {
+        if ( this.dock.isAtlasRendering() ) {
+            this.dock.atlas.place(this, images);
+        }
+        else {
+            this.variants = images;
+            this.showVariant(this.variant);
+        }
+    }
+
+    private void showVariant(int variant) {
+        this.variant = variant;
+        if ( nonNull(this.atlasViewports) ) {
+            this.icon.setViewport(this.atlasViewports[Math.min(variant, this.atlasViewports.length - 1)]);
+        }
+        else if ( nonNull(this.variants) ) {
+            this.icon.setImage(this.variants[Math.min(variant, this.variants.length - 1)]);
+        }
+    }
+
+    private void showPlaceholder() {
+        this.showImage(this.dock.app.iconsLoading.placeholder());
+    }
+
+    private void showImage(Image image) {
+        this.dock.atlas.release(this);
+        this.variants = null;
+        this.atlasViewports = null;
+        if ( this.icon.imageProperty().isBound() ) {
+            this.icon.imageProperty().unbind();
+        }
+        this.icon.setViewport(null);
+        this.icon.setImage(image);
+    }
+
+    void showAtlasViewports(ReadOnlyObjectProperty<Image> atlasImage, Rectangle2D[] viewports) {
+        if ( ! this.icon.imageProperty().isBound() ) {
+            this.icon.imageProperty().bind(atlasImage);
+        }
+        this.atlasViewports = viewports;
+        this.showVariant(this.variant);
+    }
+
+    void dispose() {
+        this.loadingItem = null;
+        this.dock.atlas.release(this);
+    }
+
+    public Item item() {
+        return this.item;
+    }
+
+    void moveTo(int index) {
+        this.item = this.item.movedTo(index);
+    }
+
+    void change(Item newItem) {
+        Item oldItem = this.item;
+        this.item = newItem;
+        if ( ! oldItem.hasSameImageSourceAs(newItem) ) {
+            this.loadImage();
+        }
+        this.tooltip.setText(newItem.name);
+    }
+
+    void applyStatus(ItemStatus status) {
+        this.iconLabel.pseudoClassStateChanged(BROKEN, status.isBroken());
+    }
+
+    void launchStarted() {
+        if ( nonNull(this.launchFailedShown) ) {
+            this.launchFailedShown.stop();
+        }
+        this.iconLabel.pseudoClassStateChanged(LAUNCH_FAILED, false);
+        this.iconLabel.pseudoClassStateChanged(LAUNCHING, true);
+    }
+
+    void launchFinished(boolean successful) {
+        this.iconLabel.pseudoClassStateChanged(LAUNCHING, false);
+        if ( ! successful ) {
+            this.iconLabel.pseudoClassStateChanged(LAUNCH_FAILED, true);
+            if ( isNull(this.launchFailedShown) ) {
+                this.launchFailedShown = new PauseTransition(LAUNCH_FAILED_SHOWN);
+                this.launchFailedShown.setOnFinished(event -> this.iconLabel.pseudoClassStateChanged(LAUNCH_FAILED, false));
+            }
+            this.launchFailedShown.playFromStart();
+        }
+    }
+
+    void applySettings(SettingsJson settings) {
+        IconEffects newEffects = Dock.effectsOf(settings);
+        boolean variantsChanged =
+                newEffects != this.effects ||
+                (newEffects == PRERENDERED && (
+                        Double.compare(this.brighter.getBrightness(), settings.getIconHoverBrighter()) != 0 ||
+                        Double.compare(this.darker.getBrightness(), settings.getIconPressDarker()) != 0));
+
+        if ( nonNull(this.effects) && newEffects != this.effects ) {
+            this.icon.setEffect(this.cssEffect.or(null));
+            this.variant = NORMAL;
+        }
+        this.effects = newEffects;
+
+        this.brighter.setBrightness(settings.getIconHoverBrighter());
+        this.darker.setBrightness(settings.getIconPressDarker());
+        double iconSize = settings.getIconSize();
+        this.icon.setFitHeight(iconSize);
+
+        int newPixelSize = (int) Math.ceil(iconSize * this.dock.outputScale());
+        boolean pixelSizeChanged = newPixelSize != this.pixelSize;
+        this.pixelSize = newPixelSize;
+
+        if ( (pixelSizeChanged || variantsChanged) && nonNull(this.loadingItem) ) {
+            this.loadImage();
+        }
+    }
+
     void click(MouseEvent event) {
         if ( event.isPrimaryButtonDown() ) {
             this.invocationCallback.accept(this);
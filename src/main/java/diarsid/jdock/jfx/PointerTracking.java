@@ -0,0 +1,79 @@
+package diarsid.jdock.jfx;
+
+import javafx.event.EventHandler;
+import javafx.scene.Scene;
+import javafx.scene.input.MouseEvent;
+import javafx.stage.Stage;
+
+class PointerTracking {
+
+    private static class Area {
+
+        private volatile boolean isExited;
+        private volatile double x;
+        private volatile double y;
+        private volatile double width;
+        private volatile double height;
+
+        private Area(Stage stage, Scene scene, PointerTracking tracking) {
+            this.x = stage.getX();
+            this.y = stage.getY();
+            this.width = stage.getWidth();
+            this.height = stage.getHeight();
+            stage.xProperty().addListener((observable, oldX, newX) -> this.x = newX.doubleValue());
+            stage.yProperty().addListener((observable, oldY, newY) -> this.y = newY.doubleValue());
+            stage.widthProperty().addListener((observable, oldWidth, newWidth) -> this.width = newWidth.doubleValue());
+            stage.heightProperty().addListener((observable, oldHeight, newHeight) -> this.height = newHeight.doubleValue());
+
+            EventHandler<MouseEvent> pointerMoved = event -> tracking.pointerAt(event.getScreenX(), event.getScreenY());
+            scene.addEventFilter(MouseEvent.MOUSE_MOVED, pointerMoved);
+            scene.addEventFilter(MouseEvent.MOUSE_DRAGGED, pointerMoved);
+            scene.addEventHandler(MouseEvent.MOUSE_ENTERED, event -> {
+                this.isExited = false;
+                tracking.pointerAt(event.getScreenX(), event.getScreenY());
+            });
+            scene.addEventHandler(MouseEvent.MOUSE_EXITED, event -> {
+                this.isExited = true;
+                tracking.pointerAt(event.getScreenX(), event.getScreenY());
+            });
+        }
+
+        boolean contains(double pointerX, double pointerY) {
+            double x = this.x;
+            double y = this.y;
+            return
+                    x <= pointerX && pointerX <= x + this.width
+                    &&
+                    y <= pointerY && pointerY <= y + this.height;
+        }
+    }
+
+    private volatile double pointerX;
+    private volatile double pointerY;
+    private final Area dock;
+    private final Area fold;
+
+    PointerTracking(Stage stageForDock, Scene sceneForDock, Stage stageForFold, Scene sceneForFold) {
+        this.pointerX = Double.NaN;
+        this.pointerY = Double.NaN;
+        this.dock = new Area(stageForDock, sceneForDock, this);
+        this.fold = new Area(stageForFold, sceneForFold, this);
+    }
+
+    private void pointerAt(double x, double y) {
+        this.pointerX = x;
+        this.pointerY = y;
+    }
+
+    boolean isInsideDock() {
+        return this.isInside(this.dock);
+    }
+
+    boolean isInsideFold() {
+        return this.isInside(this.fold);
+    }
+
+    private boolean isInside(Area area) {
+        return ! area.isExited && area.contains(this.pointerX, this.pointerY);
+    }
+}
@@ -0,0 +1,96 @@
+package diarsid.jdock.jfx;
+
+import javafx.animation.AnimationTimer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/*
+ * Measures intervals between pulses during an animation. Pulses are paced by vsync,
+ * so intervals show dropped frames, not render cost: a frame is late when its interval
+ * is longer than 1.5 of the shortest one. Render cost itself is measured by
+ * IconsRenderingBenchmark in tests, which times snapshot rendering of the same graph.
+ */
+class PulseMeter extends AnimationTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(PulseMeter.class);
+
+    private static final int MAX_INTERVALS = 512;
+
+    private String measuring;
+    private boolean isRunning;
+    private long lastPulseNanos;
+    private int pulses;
+    private long totalNanos;
+    private long maxNanos;
+    private long minNanos;
+    private final long[] intervals;
+
+    PulseMeter() {
+        this.isRunning = false;
+        this.intervals = new long[MAX_INTERVALS];
+    }
+
+    void begin(String measuring) {
+        if ( this.isRunning ) {
+            this.end();
+        }
+        this.measuring = measuring;
+        this.lastPulseNanos = 0;
+        this.pulses = 0;
+        this.totalNanos = 0;
+        this.maxNanos = 0;
+        this.minNanos = Long.MAX_VALUE;
+        this.isRunning = true;
+        super.start();
+    }
+
+    @Override
+    public void handle(long now) {
+        if ( this.lastPulseNanos > 0 ) {
+            long pulseNanos = now - this.lastPulseNanos;
+            if ( this.pulses < MAX_INTERVALS ) {
+                this.intervals[this.pulses] = pulseNanos;
+            }
+            this.pulses++;
+            this.totalNanos = this.totalNanos + pulseNanos;
+            this.maxNanos = Math.max(this.maxNanos, pulseNanos);
+            this.minNanos = Math.min(this.minNanos, pulseNanos);
+        }
+        this.lastPulseNanos = now;
+    }
+
+    void end() {
+        if ( ! this.isRunning ) {
+            return;
+        }
+        super.stop();
+        this.isRunning = false;
+
+        if ( this.pulses == 0 ) {
+            log.info(format("%s - no pulses", this.measuring));
+            return;
+        }
+
+        log.info(format("%s - %s pulses, %s late, interval avg %.2f ms, max %.2f ms",
+                this.measuring,
+                this.pulses,
+                this.latePulses(),
+                this.totalNanos / (double) this.pulses / 1000_000.0,
+                this.maxNanos / 1000_000.0));
+    }
+
+    private int latePulses() {
+        long lateNanos = this.minNanos + this.minNanos / 2;
+        int measured = Math.min(this.pulses, MAX_INTERVALS);
+        int late = 0;
+        for ( int i = 0; i < measured; i++ ) {
+            if ( this.intervals[i] > lateNanos ) {
+                late++;
+            }
+        }
+        return late;
+    }
+}
@@ -0,0 +1,168 @@
+package diarsid.jdock.jfx;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Rectangle2D;
+import javafx.stage.Screen;
+
+import diarsid.jdock.model.DockPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+
+public class ScreenGeometry {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreenGeometry.class);
+
+    private static class Screens {
+
+        private final Rectangle2D[] bounds;
+        private final Rectangle2D[] visualBounds;
+        private final double[] outputScales;
+        private final int primary;
+
+        private Screens(List<Screen> screens, Screen primaryScreen) {
+            int count = screens.size();
+            this.bounds = new Rectangle2D[count];
+            this.visualBounds = new Rectangle2D[count];
+            this.outputScales = new double[count];
+            int primary = 0;
+            Screen screen;
+            for ( int i = 0; i < count; i++ ) {
+                screen = screens.get(i);
+                this.bounds[i] = screen.getBounds();
+                this.visualBounds[i] = screen.getVisualBounds();
+                this.outputScales[i] = screen.getOutputScaleY();
+                if ( screen.equals(primaryScreen) ) {
+                    primary = i;
+                }
+            }
+            this.primary = primary;
+        }
+
+        private int indexOf(Integer screen) {
+            if ( isNull(screen) || screen < 0 || screen >= this.bounds.length ) {
+                return this.primary;
+            }
+            return screen;
+        }
+    }
+
+    private final List<Runnable> onChange;
+    private volatile Screens screens;
+    private volatile long refreshes;
+
+    public ScreenGeometry() {
+        this.onChange = new ArrayList<>();
+        this.refreshes = 0;
+        Platform.runLater(() -> {
+            ObservableList<Screen> all = Screen.getScreens();
+            all.addListener((ListChangeListener<Screen>) change -> this.refresh());
+            this.refresh();
+        });
+    }
+
+    private void refresh() {
+        this.screens = new Screens(new ArrayList<>(Screen.getScreens()), Screen.getPrimary());
+        this.refreshes++;
+        log.info(format("screens refreshed: %s screens, primary %s",
+                this.screens.bounds.length, this.screens.primary));
+        for ( Runnable listener : new ArrayList<>(this.onChange) ) {
+            listener.run();
+        }
+    }
+
+    /*
+     * Listeners are invoked on FX thread.
+     */
+    public void onChange(Runnable listener) {
+        this.onChange.add(listener);
+    }
+
+    /*
+     * Unknown or absent screen index means primary screen.
+     */
+    public Rectangle2D boundsOf(Integer screen) {
+        Screens screens = this.screens;
+        return screens.bounds[screens.indexOf(screen)];
+    }
+
+    public Rectangle2D visualBoundsOf(Integer screen) {
+        Screens screens = this.screens;
+        return screens.visualBounds[screens.indexOf(screen)];
+    }
+
+    public double outputScaleOf(Integer screen) {
+        Screens screens = this.screens;
+        return screens.outputScales[screens.indexOf(screen)];
+    }
+
+    /*
+     * True if another screen adjoins the given screen at this edge, so that a window pushed
+     * beyond the edge would appear on that neighbouring screen.
+     */
+    public boolean hasNeighbourAt(Integer screen, DockPosition edge) {
+        Screens screens = this.screens;
+        int index = screens.indexOf(screen);
+        Rectangle2D own = screens.bounds[index];
+        Rectangle2D other;
+        boolean adjoins;
+        for ( int i = 0; i < screens.bounds.length; i++ ) {
+            if ( i == index ) {
+                continue;
+            }
+            other = screens.bounds[i];
+            switch ( edge ) {
+                case TOP:
+                    adjoins = isSame(other.getMaxY(), own.getMinY()) && overlapsX(own, other);
+                    break;
+                case BOTTOM:
+                    adjoins = isSame(other.getMinY(), own.getMaxY()) && overlapsX(own, other);
+                    break;
+                case LEFT:
+                    adjoins = isSame(other.getMaxX(), own.getMinX()) && overlapsY(own, other);
+                    break;
+                case RIGHT:
+                    adjoins = isSame(other.getMinX(), own.getMaxX()) && overlapsY(own, other);
+                    break;
+                default:
+                    throw edge.unsupported();
+            }
+            if ( adjoins ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* bounds of scaled screens are not always whole numbers */
+    private static boolean isSame(double coordinate, double otherCoordinate) {
+        return Math.abs(coordinate - otherCoordinate) < 1;
+    }
+
+    private static boolean overlapsX(Rectangle2D one, Rectangle2D other) {
+        return one.getMinX() < other.getMaxX() && other.getMinX() < one.getMaxX();
+    }
+
+    private static boolean overlapsY(Rectangle2D one, Rectangle2D other) {
+        return one.getMinY() < other.getMaxY() && other.getMinY() < one.getMaxY();
+    }
+
+    public int count() {
+        return this.screens.bounds.length;
+    }
+
+    @Override
+    public String toString() {
+        Screens screens = this.screens;
+        return "ScreenGeometry{" +
+                "screens=" + (isNull(screens) ? 0 : screens.bounds.length) +
+                ", refreshes=" + this.refreshes +
+                '}';
+    }
+}
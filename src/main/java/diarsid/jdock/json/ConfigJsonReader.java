@@ -1,21 +1,29 @@
 package diarsid.jdock.json;
 
-import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import diarsid.support.objects.Either;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
 
 public class ConfigJsonReader implements Supplier<Either<ConfigJson, ConfigError>> {
 
-    private final ObjectMapper mapper;
-    private final File configJsonFile;
+    private static final Logger log = LoggerFactory.getLogger(ConfigJsonReader.class);
+
+    private final Path configJsonPath;
+    private final ConfigSnapshot snapshot;
+    private ObjectMapper mapper;
 
     public ConfigJsonReader(String configFilePath) {
-        this.mapper = new ObjectMapper();
         Path configFile = Paths.get(configFilePath);
         if ( ! Files.exists(configFile) ) {
             throw new IllegalStateException(configFilePath + " does not exist!");
@@ -23,13 +31,36 @@ public class ConfigJsonReader implements Supplier<Either<ConfigJson, ConfigError
         if ( ! Files.isReadable(configFile) ) {
             throw new IllegalStateException(configFilePath + " is not readable!");
         }
-        this.configJsonFile = configFile.toAbsolutePath().toFile();
+        this.configJsonPath = configFile.toAbsolutePath();
+        this.snapshot = new ConfigSnapshot(this.configJsonPath);
+    }
+
+    public Path path() {
+        return this.configJsonPath;
     }
 
     @Override
-    public Either<ConfigJson, ConfigError> get() {
+    public synchronized Either<ConfigJson, ConfigError> get() {
         try {
-            ConfigJson config = mapper.readValue(configJsonFile, ConfigJson.class);
+            long start = System.nanoTime();
+
+            BasicFileAttributes attributes = Files.readAttributes(this.configJsonPath, BasicFileAttributes.class);
+            byte[] json = Files.readAllBytes(this.configJsonPath);
+            ConfigSnapshot.Key key = new ConfigSnapshot.Key(
+                    attributes.size(), attributes.lastModifiedTime().toMillis(), json);
+
+            Optional<ConfigJson> snapshotted = this.snapshot.readIfMatches(key);
+            if ( snapshotted.isPresent() ) {
+                log.info(format("config loaded from snapshot in %s ms", (System.nanoTime() - start) / 1000_000.0));
+                return Either.leftOfEither(snapshotted.get());
+            }
+
+            if ( isNull(this.mapper) ) {
+                this.mapper = new ObjectMapper();
+            }
+            ConfigJson config = this.mapper.readValue(json, ConfigJson.class);
+            log.info(format("config parsed from json in %s ms", (System.nanoTime() - start) / 1000_000.0));
+            this.snapshot.write(key, config);
             return Either.leftOfEither(config);
         }
         catch (Exception e) {
@@ -0,0 +1,319 @@
+package diarsid.jdock.json;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.isNull;
+
+class ConfigSnapshot {
+
+    static class Key {
+
+        final long size;
+        final long modifiedMillis;
+        final long hash;
+
+        Key(long size, long modifiedMillis, byte[] content) {
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+            CRC32C crc = new CRC32C();
+            crc.update(content);
+            this.hash = crc.getValue();
+        }
+
+        private Key(DataInputStream in) throws IOException {
+            this.size = in.readLong();
+            this.modifiedMillis = in.readLong();
+            this.hash = in.readLong();
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(this.size);
+            out.writeLong(this.modifiedMillis);
+            out.writeLong(this.hash);
+        }
+
+        private boolean matches(Key other) {
+            return this.size == other.size &&
+                    this.modifiedMillis == other.modifiedMillis &&
+                    this.hash == other.hash;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+    private static final int MAGIC = 0x4A444B53;
+    private static final int VERSION = 14;
+    private static final int NULL = -1;
+
+    private final Path snapshotFile;
+
+    ConfigSnapshot(Path configFile) {
+        this.snapshotFile = configFile.resolveSibling(configFile.getFileName() + ".snapshot");
+    }
+
+    Optional<ConfigJson> readIfMatches(Key key) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.snapshotFile)))) {
+            if ( in.readInt() != MAGIC || in.readInt() != VERSION ) {
+                return Optional.empty();
+            }
+
+            Key snapshotKey = new Key(in);
+            if ( ! snapshotKey.matches(key) ) {
+                return Optional.empty();
+            }
+
+            ConfigJson config = new ConfigJson();
+            config.setSettings(readSettings(in));
+            config.setDocks(readDocks(in));
+            return Optional.of(config);
+        }
+        catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("cannot read config snapshot " + this.snapshotFile, e);
+            return Optional.empty();
+        }
+    }
+
+    void write(Key key, ConfigJson config) {
+        Path tmpFile = this.snapshotFile.resolveSibling(this.snapshotFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                key.writeTo(out);
+                writeSettings(out, config.getSettings());
+                writeDocks(out, config.getDocks());
+            }
+            Files.move(tmpFile, this.snapshotFile, REPLACE_EXISTING, ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("cannot write config snapshot " + this.snapshotFile, e);
+        }
+    }
+
+    private static void writeSettings(DataOutputStream out, SettingsJson settings) throws IOException {
+        out.writeBoolean(isNull(settings));
+        if ( isNull(settings) ) {
+            return;
+        }
+        out.writeInt(settings.iconSize);
+        out.writeInt(settings.foldThick);
+        out.writeDouble(settings.iconHoverBrighter);
+        out.writeDouble(settings.iconPressDarker);
+        out.writeDouble(settings.showTime);
+        out.writeDouble(settings.hideTime);
+        writeEnum(out, settings.move);
+        writeEnum(out, settings.reload);
+        writeEnum(out, settings.layout);
+        out.writeInt(settings.thumbnailsCacheMb);
+        out.writeInt(settings.imagesCacheMb);
+        writeStrings(out, settings.nativeIconsByExtension);
+        writeEnum(out, settings.rendering);
+        out.writeBoolean(settings.pulseMetering);
+        writeEnum(out, settings.effects);
+        writeEnum(out, settings.chrome);
+        writeEnum(out, settings.threads);
+        writeScreens(out, settings.screens);
+        writeString(out, settings.latenciesFile);
+        writeEnum(out, settings.windows);
+        out.writeBoolean(settings.revealSnapshot);
+        out.writeInt(settings.launchDedupeMs);
+        out.writeInt(settings.launchTimeoutMs);
+    }
+
+    private static SettingsJson readSettings(DataInputStream in) throws IOException {
+        boolean isNull = in.readBoolean();
+        if ( isNull ) {
+            return null;
+        }
+        SettingsJson settings = new SettingsJson();
+        settings.setIconSize(in.readInt());
+        settings.setFoldThick(in.readInt());
+        settings.setIconHoverBrighter(in.readDouble());
+        settings.setIconPressDarker(in.readDouble());
+        settings.setShowTime(in.readDouble());
+        settings.setHideTime(in.readDouble());
+        settings.setMove(readEnum(in, DockMove.values()));
+        settings.setReload(readEnum(in, ConfigReload.values()));
+        settings.setLayout(readEnum(in, DockLayout.values()));
+        settings.setThumbnailsCacheMb(in.readInt());
+        settings.setImagesCacheMb(in.readInt());
+        settings.setNativeIconsByExtension(readStrings(in));
+        settings.setRendering(readEnum(in, IconsRendering.values()));
+        settings.setPulseMetering(in.readBoolean());
+        settings.setEffects(readEnum(in, IconEffects.values()));
+        settings.setChrome(readEnum(in, DockChrome.values()));
+        settings.setThreads(readEnum(in, ThreadsMode.values()));
+        settings.setScreens(readScreens(in));
+        settings.setLatenciesFile(readString(in));
+        settings.setWindows(readEnum(in, DockWindows.values()));
+        settings.setRevealSnapshot(in.readBoolean());
+        settings.setLaunchDedupeMs(in.readInt());
+        settings.setLaunchTimeoutMs(in.readInt());
+        return settings;
+    }
+
+    private static void writeScreens(DataOutputStream out, ScreensJson screens) throws IOException {
+        out.writeBoolean(isNull(screens));
+        if ( isNull(screens) ) {
+            return;
+        }
+        writeInteger(out, screens.getTop());
+        writeInteger(out, screens.getRight());
+        writeInteger(out, screens.getBottom());
+        writeInteger(out, screens.getLeft());
+    }
+
+    private static ScreensJson readScreens(DataInputStream in) throws IOException {
+        boolean isNull = in.readBoolean();
+        if ( isNull ) {
+            return null;
+        }
+        ScreensJson screens = new ScreensJson();
+        screens.setTop(readInteger(in));
+        screens.setRight(readInteger(in));
+        screens.setBottom(readInteger(in));
+        screens.setLeft(readInteger(in));
+        return screens;
+    }
+
+    private static void writeDocks(DataOutputStream out, DocksJson docks) throws IOException {
+        out.writeBoolean(isNull(docks));
+        if ( isNull(docks) ) {
+            return;
+        }
+        writeItems(out, docks.getTop());
+        writeItems(out, docks.getRight());
+        writeItems(out, docks.getBottom());
+        writeItems(out, docks.getLeft());
+    }
+
+    private static DocksJson readDocks(DataInputStream in) throws IOException {
+        boolean isNull = in.readBoolean();
+        if ( isNull ) {
+            return null;
+        }
+        DocksJson docks = new DocksJson();
+        docks.setTop(readItems(in));
+        docks.setRight(readItems(in));
+        docks.setBottom(readItems(in));
+        docks.setLeft(readItems(in));
+        return docks;
+    }
+
+    private static void writeItems(DataOutputStream out, ItemJson[] items) throws IOException {
+        if ( isNull(items) ) {
+            out.writeInt(NULL);
+            return;
+        }
+        out.writeInt(items.length);
+        for ( ItemJson item : items ) {
+            writeString(out, item.getName());
+            writeString(out, item.getIcon());
+            writeString(out, item.getTarget());
+        }
+    }
+
+    private static ItemJson[] readItems(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if ( length == NULL ) {
+            return null;
+        }
+        ItemJson[] items = new ItemJson[length];
+        ItemJson item;
+        for ( int i = 0; i < length; i++ ) {
+            item = new ItemJson();
+            item.setName(readString(in));
+            item.setIcon(readString(in));
+            item.setTarget(readString(in));
+            items[i] = item;
+        }
+        return items;
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] strings) throws IOException {
+        if ( isNull(strings) ) {
+            out.writeInt(NULL);
+            return;
+        }
+        out.writeInt(strings.length);
+        for ( String string : strings ) {
+            writeString(out, string);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if ( length == NULL ) {
+            return null;
+        }
+        String[] strings = new String[length];
+        for ( int i = 0; i < length; i++ ) {
+            strings[i] = readString(in);
+        }
+        return strings;
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        out.writeBoolean(isNull(string));
+        if ( ! isNull(string) ) {
+            out.writeUTF(string);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        boolean isNull = in.readBoolean();
+        if ( isNull ) {
+            return null;
+        }
+        return in.readUTF();
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer integer) throws IOException {
+        out.writeBoolean(isNull(integer));
+        if ( ! isNull(integer) ) {
+            out.writeInt(integer);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        boolean isNull = in.readBoolean();
+        if ( isNull ) {
+            return null;
+        }
+        return in.readInt();
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        if ( isNull(value) ) {
+            out.writeInt(NULL);
+        }
+        else {
+            out.writeInt(value.ordinal());
+        }
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        int ordinal = in.readInt();
+        if ( ordinal == NULL ) {
+            return null;
+        }
+        return values[ordinal];
+    }
+}
@@ -2,5 +2,6 @@ package diarsid.jdock.json;
 
 public enum DockMove {
     SMOOTH,
-    INSTANT
+    INSTANT,
+    REVEAL
 }
@@ -0,0 +1,6 @@
+package diarsid.jdock.json;
+
+public enum DockWindows {
+    SEPARATE,
+    SINGLE
+}
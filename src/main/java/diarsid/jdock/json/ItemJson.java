@@ -1,5 +1,7 @@
 package diarsid.jdock.json;
 
+import java.util.Objects;
+
 public class ItemJson {
 
     private String name;
@@ -29,4 +31,19 @@ public class ItemJson {
     void setTarget(String target) {
         this.target = target;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemJson)) return false;
+        ItemJson itemJson = (ItemJson) o;
+        return Objects.equals(name, itemJson.name) &&
+                Objects.equals(icon, itemJson.icon) &&
+                Objects.equals(target, itemJson.target);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, icon, target);
+    }
 }
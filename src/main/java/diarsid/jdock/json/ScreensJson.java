@@ -0,0 +1,53 @@
+package diarsid.jdock.json;
+
+import diarsid.jdock.model.DockPosition;
+
+public class ScreensJson {
+
+    private Integer top;
+    private Integer right;
+    private Integer left;
+    private Integer bottom;
+
+    public Integer getTop() {
+        return top;
+    }
+
+    void setTop(Integer top) {
+        this.top = top;
+    }
+
+    public Integer getRight() {
+        return right;
+    }
+
+    void setRight(Integer right) {
+        this.right = right;
+    }
+
+    public Integer getLeft() {
+        return left;
+    }
+
+    void setLeft(Integer left) {
+        this.left = left;
+    }
+
+    public Integer getBottom() {
+        return bottom;
+    }
+
+    void setBottom(Integer bottom) {
+        this.bottom = bottom;
+    }
+
+    public Integer get(DockPosition position) {
+        switch ( position ) {
+            case TOP: return top;
+            case RIGHT: return right;
+            case BOTTOM: return bottom;
+            case LEFT: return left;
+            default: throw position.unsupported();
+        }
+    }
+}
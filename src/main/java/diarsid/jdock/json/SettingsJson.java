@@ -9,6 +9,22 @@ public class SettingsJson {
     double showTime;
     double hideTime;
     DockMove move;
+    ConfigReload reload;
+    DockLayout layout;
+    int thumbnailsCacheMb;
+    int imagesCacheMb;
+    String[] nativeIconsByExtension;
+    IconsRendering rendering;
+    boolean pulseMetering;
+    IconEffects effects;
+    DockChrome chrome;
+    ThreadsMode threads;
+    ScreensJson screens;
+    String latenciesFile;
+    DockWindows windows;
+    boolean revealSnapshot;
+    int launchDedupeMs;
+    int launchTimeoutMs;
 
     public double getIconSize() {
         return iconSize;
@@ -38,6 +54,82 @@ public class SettingsJson {
         return move;
     }
 
+    public ConfigReload getReload() {
+        return reload;
+    }
+
+    public DockLayout getLayout() {
+        return layout;
+    }
+
+    public int getThumbnailsCacheMb() {
+        return thumbnailsCacheMb;
+    }
+
+    public int getImagesCacheMb() {
+        return imagesCacheMb;
+    }
+
+    public String[] getNativeIconsByExtension() {
+        return nativeIconsByExtension;
+    }
+
+    public IconsRendering getRendering() {
+        return rendering;
+    }
+
+    public boolean isPulseMetering() {
+        return pulseMetering;
+    }
+
+    public IconEffects getEffects() {
+        return effects;
+    }
+
+    public DockChrome getChrome() {
+        return chrome;
+    }
+
+    public ThreadsMode getThreads() {
+        return threads;
+    }
+
+    public ScreensJson getScreens() {
+        return screens;
+    }
+
+    public String getLatenciesFile() {
+        return latenciesFile;
+    }
+
+    public DockWindows getWindows() {
+        return windows;
+    }
+
+    public boolean isRevealSnapshot() {
+        return revealSnapshot;
+    }
+
+    public int getLaunchDedupeMs() {
+        return launchDedupeMs;
+    }
+
+    public int getLaunchTimeoutMs() {
+        return launchTimeoutMs;
+    }
+
+    public boolean hasSameIconsAs(SettingsJson other) {
+        return iconSize == other.iconSize &&
+                Double.compare(iconHoverBrighter, other.iconHoverBrighter) == 0 &&
+                Double.compare(iconPressDarker, other.iconPressDarker) == 0 &&
+                effects == other.effects;
+    }
+
+    public boolean hasSameTimingsAs(SettingsJson other) {
+        return Double.compare(showTime, other.showTime) == 0 &&
+                Double.compare(hideTime, other.hideTime) == 0;
+    }
+
     void setIconSize(int iconSize) {
         this.iconSize = iconSize;
     }
@@ -65,4 +157,68 @@ public class SettingsJson {
     void setMove(DockMove move) {
         this.move = move;
     }
+
+    void setReload(ConfigReload reload) {
+        this.reload = reload;
+    }
+
+    void setLayout(DockLayout layout) {
+        this.layout = layout;
+    }
+
+    void setThumbnailsCacheMb(int thumbnailsCacheMb) {
+        this.thumbnailsCacheMb = thumbnailsCacheMb;
+    }
+
+    void setImagesCacheMb(int imagesCacheMb) {
+        this.imagesCacheMb = imagesCacheMb;
+    }
+
+    void setNativeIconsByExtension(String[] nativeIconsByExtension) {
+        this.nativeIconsByExtension = nativeIconsByExtension;
+    }
+
+    void setRendering(IconsRendering rendering) {
+        this.rendering = rendering;
+    }
+
+    void setPulseMetering(boolean pulseMetering) {
+        this.pulseMetering = pulseMetering;
+    }
+
+    void setEffects(IconEffects effects) {
+        this.effects = effects;
+    }
+
+    void setChrome(DockChrome chrome) {
+        this.chrome = chrome;
+    }
+
+    void setThreads(ThreadsMode threads) {
+        this.threads = threads;
+    }
+
+    void setScreens(ScreensJson screens) {
+        this.screens = screens;
+    }
+
+    void setLatenciesFile(String latenciesFile) {
+        this.latenciesFile = latenciesFile;
+    }
+
+    void setWindows(DockWindows windows) {
+        this.windows = windows;
+    }
+
+    void setRevealSnapshot(boolean revealSnapshot) {
+        this.revealSnapshot = revealSnapshot;
+    }
+
+    void setLaunchDedupeMs(int launchDedupeMs) {
+        this.launchDedupeMs = launchDedupeMs;
+    }
+
+    void setLaunchTimeoutMs(int launchTimeoutMs) {
+        this.launchTimeoutMs = launchTimeoutMs;
+    }
 }
@@ -0,0 +1,96 @@
+package diarsid.jdock.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class DockLatencies {
+
+    public enum Phase {
+
+        /* fold touched -> DockSession activated */
+        TOUCH_TO_ACTIVATION,
+        /* DockSession activated -> showDock invoked */
+        ACTIVATION_TO_SHOW,
+        /* showDock invoked -> first animation pulse */
+        SHOW_TO_FIRST_PULSE,
+        /* first animation pulse -> dock fully shown */
+        FIRST_PULSE_TO_SHOWN,
+        /* fold touched -> dock fully shown */
+        TOUCH_TO_SHOWN,
+        /* DockSession deactivated -> hideDock invoked on FX thread */
+        DEACTIVATION_TO_HIDE,
+        /* hideDock invoked -> dock fully hidden */
+        HIDE_TO_HIDDEN
+    }
+
+    private final Map<DockPosition, Map<Phase, LatencyHistogram>> histograms;
+
+    public DockLatencies() {
+        this.histograms = new EnumMap<>(DockPosition.class);
+        Map<Phase, LatencyHistogram> phases;
+        for ( DockPosition position : DockPosition.values() ) {
+            phases = new EnumMap<>(Phase.class);
+            for ( Phase phase : Phase.values() ) {
+                phases.put(phase, new LatencyHistogram());
+            }
+            this.histograms.put(position, phases);
+        }
+    }
+
+    public LatencyHistogram of(DockPosition position, Phase phase) {
+        return this.histograms.get(position).get(phase);
+    }
+
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        LatencyHistogram histogram;
+        for ( DockPosition position : DockPosition.values() ) {
+            for ( Phase phase : Phase.values() ) {
+                histogram = this.of(position, phase);
+                if ( histogram.count() > 0 ) {
+                    description
+                            .append(format("%n  %s %s: ", position.name().toLowerCase(), phase.name().toLowerCase()))
+                            .append(histogram);
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    public void dumpTo(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, UTF_8)) {
+            writer.write("position,phase,count,mean_ms,p50_ms,p90_ms,p99_ms,max_ms,buckets_log2_ns\n");
+            LatencyHistogram histogram;
+            long[] buckets;
+            for ( DockPosition position : DockPosition.values() ) {
+                for ( Phase phase : Phase.values() ) {
+                    histogram = this.of(position, phase);
+                    buckets = histogram.snapshot();
+                    writer.write(format("%s,%s,%s,%.3f,%.3f,%.3f,%.3f,%.3f,",
+                            position.name().toLowerCase(),
+                            phase.name().toLowerCase(),
+                            histogram.count(),
+                            histogram.meanMillis(),
+                            histogram.percentileMillis(50),
+                            histogram.percentileMillis(90),
+                            histogram.percentileMillis(99),
+                            histogram.maxMillis()));
+                    for ( int i = 0; i < buckets.length; i++ ) {
+                        if ( i > 0 ) {
+                            writer.write(' ');
+                        }
+                        writer.write(Long.toString(buckets[i]));
+                    }
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+}
@@ -1,69 +1,50 @@
 package diarsid.jdock.model;
 
 import java.util.List;
-import javafx.animation.Animation;
-import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.value.ChangeListener;
+import java.util.function.DoubleConsumer;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
 import diarsid.jdock.jfx.Item;
 import diarsid.support.objects.CommonEnum;
 
-import static diarsid.jdock.jfx.Util.screenHeight;
-import static diarsid.jdock.jfx.Util.screenWidth;
 import static diarsid.jdock.model.DockOrientation.HORIZONTAL;
 import static diarsid.jdock.model.DockOrientation.VERTICAL;
-import static diarsid.jdock.model.DockPosition.MoveDirection.HIDING;
-import static diarsid.jdock.model.DockPosition.MoveDirection.SHOWING;
 
 public enum DockPosition implements CommonEnum<DockPosition> {
 
     TOP(
-            /* shown X */ (stage) -> (screenWidth() / 2 - stage.widthProperty().get() / 2),
-            /* shown Y */ (stage) -> 0,
-            /* hidden X */ (stage) -> (screenWidth() / 2 - stage.widthProperty().get() / 2),
-            /* hidden Y */ (stage) -> ( - stage.heightProperty().get()),
+            /* shown X */ (stage, screen) -> (screen.getMinX() + screen.getWidth() / 2 - stage.widthProperty().get() / 2),
+            /* shown Y */ (stage, screen) -> (screen.getMinY()),
+            /* hidden X */ (stage, screen) -> (screen.getMinX() + screen.getWidth() / 2 - stage.widthProperty().get() / 2),
+            /* hidden Y */ (stage, screen) -> (screen.getMinY() - stage.heightProperty().get()),
             HORIZONTAL),
 
     RIGHT(
-            /* shown X */ (stage) -> (screenWidth() - stage.widthProperty().get()),
-            /* shown Y */ (stage) -> (screenHeight() / 2 - stage.heightProperty().get() / 2),
-            /* hidden X */ (stage) -> (screenWidth()),
-            /* hidden Y */ (stage) -> (screenHeight() / 2 - stage.heightProperty().get() / 2),
+            /* shown X */ (stage, screen) -> (screen.getMaxX() - stage.widthProperty().get()),
+            /* shown Y */ (stage, screen) -> (screen.getMinY() + screen.getHeight() / 2 - stage.heightProperty().get() / 2),
+            /* hidden X */ (stage, screen) -> (screen.getMaxX()),
+            /* hidden Y */ (stage, screen) -> (screen.getMinY() + screen.getHeight() / 2 - stage.heightProperty().get() / 2),
             VERTICAL),
 
     BOTTOM(
-            /* shown X */ (stage) -> (screenWidth() / 2 - stage.widthProperty().get() / 2),
-            /* shown Y */ (stage) -> (screenHeight() - stage.heightProperty().get()),
-            /* hidden X */ (stage) -> (screenWidth() / 2 - stage.widthProperty().get() / 2),
-            /* hidden Y */ (stage) -> (screenHeight() + stage.heightProperty().get()),
+            /* shown X */ (stage, screen) -> (screen.getMinX() + screen.getWidth() / 2 - stage.widthProperty().get() / 2),
+            /* shown Y */ (stage, screen) -> (screen.getMaxY() - stage.heightProperty().get()),
+            /* hidden X */ (stage, screen) -> (screen.getMinX() + screen.getWidth() / 2 - stage.widthProperty().get() / 2),
+            /* hidden Y */ (stage, screen) -> (screen.getMaxY() + stage.heightProperty().get()),
             HORIZONTAL),
 
     LEFT(
-            /* shown X */ (stage) -> (0),
-            /* shown Y */ (stage) -> (screenHeight() / 2 - stage.heightProperty().get() / 2),
-            /* hidden X */ (stage) -> ( - stage.widthProperty().get()),
-            /* hidden Y */ (stage) -> (screenHeight() / 2 - stage.heightProperty().get() / 2),
+            /* shown X */ (stage, screen) -> (screen.getMinX()),
+            /* shown Y */ (stage, screen) -> (screen.getMinY() + screen.getHeight() / 2 - stage.heightProperty().get() / 2),
+            /* hidden X */ (stage, screen) -> (screen.getMinX() - stage.widthProperty().get()),
+            /* hidden Y */ (stage, screen) -> (screen.getMinY() + screen.getHeight() / 2 - stage.heightProperty().get() / 2),
             VERTICAL);
 
     private interface AxisValueGetter {
 
-        double getOf(Stage stage);
-    }
-
-    private interface AxisValueChange {
-
-        void accept(double axisValue);
-    }
-
-    enum MoveDirection {
-        HIDING, SHOWING
+        double getOf(Stage stage, Rectangle2D screen);
     }
 
     private final AxisValueGetter shownX;
@@ -86,104 +67,90 @@ public enum DockPosition implements CommonEnum<DockPosition> {
         this.dockOrientation = dockOrientation;
     }
 
-    public double getShownXFor(Stage stage) {
-        return this.shownX.getOf(stage);
+    public double getShownXFor(Stage stage, Rectangle2D screen) {
+        return this.shownX.getOf(stage, screen);
     }
 
-    public double getShownYFor(Stage stage) {
-        return this.shownY.getOf(stage);
+    public double getShownYFor(Stage stage, Rectangle2D screen) {
+        return this.shownY.getOf(stage, screen);
     }
 
-    public double getHiddenXFor(Stage stage) {
-        return this.hiddenX.getOf(stage);
+    public double getHiddenXFor(Stage stage, Rectangle2D screen) {
+        return this.hiddenX.getOf(stage, screen);
     }
 
-    public double getHiddenYFor(Stage stage) {
-        return this.hiddenY.getOf(stage);
+    public double getHiddenYFor(Stage stage, Rectangle2D screen) {
+        return this.hiddenY.getOf(stage, screen);
     }
 
-    public void assignShownXY(Stage stage) {
-        stage.setX(this.shownX.getOf(stage));
-        stage.setY(this.shownY.getOf(stage));
+    public void assignShownXY(Stage stage, Rectangle2D screen) {
+        stage.setX(this.shownX.getOf(stage, screen));
+        stage.setY(this.shownY.getOf(stage, screen));
     }
 
-    public void assignHiddenXY(Stage stage) {
-        stage.setX(this.hiddenX.getOf(stage));
-        stage.setY(this.hiddenY.getOf(stage));
+    public void assignHiddenXY(Stage stage, Rectangle2D screen) {
+        stage.setX(this.hiddenX.getOf(stage, screen));
+        stage.setY(this.hiddenY.getOf(stage, screen));
     }
 
-    public Animation createShowingAnimation(Stage stage, double seconds, Runnable onFinished) {
-        return createAnimationFor(stage, SHOWING, seconds, onFinished);
+    public double getShownAxisFor(Stage stage, Rectangle2D screen) {
+        if ( this.dockOrientation.equalTo(VERTICAL) ) {
+            return this.shownX.getOf(stage, screen);
+        }
+        else {
+            return this.shownY.getOf(stage, screen);
+        }
     }
 
-    public Animation createHidingAnimation(Stage stage, double seconds, Runnable onFinished) {
-        return createAnimationFor(stage, HIDING, seconds, onFinished);
+    public double getHiddenAxisFor(Stage stage, Rectangle2D screen) {
+        if ( this.dockOrientation.equalTo(VERTICAL) ) {
+            return this.hiddenX.getOf(stage, screen);
+        }
+        else {
+            return this.hiddenY.getOf(stage, screen);
+        }
     }
 
-    private Animation createAnimationFor(
-            Stage stage,
-            MoveDirection direction,
-            double seconds,
-            Runnable onFinished) {
-        Timeline showing = new Timeline();
-        Duration duration = Duration.seconds(seconds);
-
-        double axisInitialValue;
-        double axisTargetValue;
-        AxisValueChange axisValueChange;
+    public DoubleConsumer movingAxisOf(Stage stage) {
         if ( this.dockOrientation.equalTo(VERTICAL) ) {
-            axisValueChange = changedX -> stage.setX(changedX);
-
-            if ( direction == SHOWING ) {
-                axisInitialValue = this.hiddenX.getOf(stage);
-                axisTargetValue = this.shownX.getOf(stage);
-            }
-            else {
-                axisInitialValue = this.shownX.getOf(stage);
-                axisTargetValue = this.hiddenX.getOf(stage);
-            }
+            return stage::setX;
         }
         else {
-            axisValueChange = changedY -> stage.setY(changedY);
-
-            if ( direction == SHOWING ) {
-                axisInitialValue = this.hiddenY.getOf(stage);
-                axisTargetValue = this.shownY.getOf(stage);
-            }
-            else {
-                axisInitialValue = this.shownY.getOf(stage);
-                axisTargetValue = this.hiddenY.getOf(stage);
-            }
+            return stage::setY;
         }
+    }
 
-        Interpolator interpolator;
-        if ( direction == SHOWING ) {
-            interpolator = Interpolator.EASE_IN;
+    public DoubleConsumer movingTranslateOf(Node node) {
+        if ( this.dockOrientation.equalTo(VERTICAL) ) {
+            return node::setTranslateX;
         }
         else {
-            interpolator = Interpolator.EASE_OUT;
+            return node::setTranslateY;
         }
+    }
 
-        DoubleProperty xProperty = new SimpleDoubleProperty(axisInitialValue);
-
-        ChangeListener<? super Number> xPropertyChange = (prop, oldV, newV) -> {
-            axisValueChange.accept(newV.doubleValue());
-        };
-
-        xProperty.addListener(xPropertyChange);
-
-        KeyValue key = new KeyValue(xProperty, axisTargetValue, interpolator);
-        KeyFrame finalPosition = new KeyFrame(duration, key);
-        showing.getKeyFrames().add(finalPosition);
-
-        showing.setOnFinished(event -> {
-            xProperty.removeListener(xPropertyChange);
-            xProperty.set(axisInitialValue);
-            xProperty.addListener(xPropertyChange);
-            onFinished.run();
-        });
+    /*
+     * Dock is shown within visual bounds, so it does not overlap the taskbar, but it must
+     * be hidden beyond the whole screen bounds, otherwise it would stand over the taskbar.
+     */
+    public Rectangle2D hidingAreaOf(Rectangle2D bounds, Rectangle2D visualBounds) {
+        if ( this.dockOrientation.equalTo(VERTICAL) ) {
+            return new Rectangle2D(
+                    bounds.getMinX(), visualBounds.getMinY(), bounds.getWidth(), visualBounds.getHeight());
+        }
+        else {
+            return new Rectangle2D(
+                    visualBounds.getMinX(), bounds.getMinY(), visualBounds.getWidth(), bounds.getHeight());
+        }
+    }
 
-        return showing;
+    public void assignCrossAxis(Stage stage, Rectangle2D screen) {
+        if ( this.dockOrientation.equalTo(VERTICAL) ) {
+            stage.setY(this.shownY.getOf(stage, screen));
+        }
+        else {
+            stage.setX(this.shownX.getOf(stage, screen));
+        }
     }
 
     public void mustBeParentOfAll(Item item) {
@@ -1,151 +1,212 @@
 package diarsid.jdock.model;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import javafx.application.Platform;
 
-import diarsid.support.concurrency.threads.NamedThreadSource;
-import diarsid.support.objects.references.Possible;
-
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
-
-import static diarsid.support.concurrency.ThreadUtils.currentThreadTrack;
-import static diarsid.support.concurrency.threads.ThreadsUtil.shutdownAndWait;
-import static diarsid.support.objects.references.References.simplePossibleButEmpty;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class DockSession {
 
+    private static final long DEACTIVATION_DELAY_MILLIS = 300;
+    private static final long DEACTIVATION_DELAY_NANOS = MILLISECONDS.toNanos(DEACTIVATION_DELAY_MILLIS);
+
+    /*
+     * States are encoded in one int to allow CAS transitions:
+     * IDLE, ACTIVE, DEACTIVATING (deactivation check in progress on timer thread),
+     * DEACTIVATING_TOUCHED (touched during that check) and BLOCKED (any negative
+     * value, where -state is a count of blocks).
+     */
+    private static final int IDLE = 0;
+    private static final int ACTIVE = 1;
+    private static final int DEACTIVATING = 2;
+    private static final int DEACTIVATING_TOUCHED = 3;
+
     private final Runnable onActivation;
     private final Runnable onDeactivation;
+    private final Executor deactivationThread;
     private final Supplier<Boolean> canDeactivate;
-    private final ReadWriteLock lock;
-    private final Possible<Future> deactivation;
-    private final List<String> blocks;
-    private final ScheduledExecutorService async;
+    private final AtomicInteger state;
+    private final Queue<String> blocks;
+    private final TimerWheel timers;
+    private volatile TimerWheel.Timeout deactivation;
+    private volatile long lastActivityNanos;
+    private volatile long activatedNanos;
+    private volatile long deactivatedNanos;
 
     public DockSession(
-            DockPosition position,
-            NamedThreadSource namedThreadSource,
+            TimerWheel timers,
             Runnable onActivation,
             Runnable onDeactivation,
             Supplier<Boolean> canDeactivate) {
+        this(timers, onActivation, onDeactivation, canDeactivate, Platform::runLater);
+    }
+
+    DockSession(
+            TimerWheel timers,
+            Runnable onActivation,
+            Runnable onDeactivation,
+            Supplier<Boolean> canDeactivate,
+            Executor deactivationThread) {
         this.onActivation = onActivation;
         this.onDeactivation = onDeactivation;
+        this.deactivationThread = deactivationThread;
         this.canDeactivate = canDeactivate;
-        this.lock = new ReentrantReadWriteLock();
-        this.deactivation = simplePossibleButEmpty();
-        this.blocks = new ArrayList<>();
-        this.async = namedThreadSource.newNamedScheduledExecutorService("dock-session-" + position.name().toLowerCase(), 1);
+        this.state = new AtomicInteger(IDLE);
+        this.blocks = new ConcurrentLinkedQueue<>();
+        this.timers = timers;
     }
 
     public boolean isActive() {
-        lock.readLock().lock();
-        try {
-            return deactivation.isPresent();
-        }
-        finally {
-            lock.readLock().unlock();
-        }
+        return state.get() != IDLE;
     }
 
-    public void touch() {
-        lock.writeLock().lock();
-        try {
-            if ( blocks.isEmpty() ) {
-                doTouch();
-            }
-        }
-        finally {
-            lock.writeLock().unlock();
-        }
+    public boolean isBlocked() {
+        return state.get() < 0;
     }
 
-    private void doTouch() {
-        if ( deactivation.isPresent() ) {
-            prolongActivity();
-        }
-        else {
-            activate();
+    public long activatedNanos() {
+        return activatedNanos;
+    }
+
+    public long deactivatedNanos() {
+        return deactivatedNanos;
+    }
+
+    public void touch() {
+        lastActivityNanos = System.nanoTime();
+
+        int current;
+        while ( true ) {
+            current = state.get();
+            switch ( current ) {
+                case IDLE:
+                    if ( state.compareAndSet(IDLE, ACTIVE) ) {
+                        activate();
+                        return;
+                    }
+                    break;
+                case ACTIVE:
+                    /* pending deadline check will see the new activity time and re-arm itself */
+                    return;
+                case DEACTIVATING:
+                    if ( state.compareAndSet(DEACTIVATING, DEACTIVATING_TOUCHED) ) {
+                        return;
+                    }
+                    break;
+                default:
+                    /* DEACTIVATING_TOUCHED or BLOCKED */
+                    return;
+            }
         }
     }
 
     public void block(String name) {
-        lock.writeLock().lock();
-        try {
-            Future oldDeactivation = deactivation.orThrow();
-            oldDeactivation.cancel(true);
-            blocks.add(name);
-        }
-        finally {
-            lock.writeLock().unlock();
+        int current;
+        int next;
+        do {
+            current = state.get();
+            if ( current == IDLE ) {
+                throw new IllegalStateException("cannot block inactive session");
+            }
+            next = current < 0 ? current - 1 : -1;
+        } while ( ! state.compareAndSet(current, next) );
+
+        blocks.add(name);
+
+        if ( current == ACTIVE ) {
+            deactivation.cancel();
         }
     }
 
     public void unblock(String name) {
-        lock.writeLock().lock();
-        try {
-            boolean removed = blocks.remove(name);
-            if ( ! removed ) {
-                throw new IllegalArgumentException();
-            }
-            if ( blocks.isEmpty() ) {
-                doTouch();
-            }
+        boolean removed = blocks.remove(name);
+        if ( ! removed ) {
+            throw new IllegalArgumentException();
         }
-        finally {
-            lock.writeLock().unlock();
+
+        int current;
+        int next;
+        do {
+            current = state.get();
+            if ( current >= 0 ) {
+                throw new IllegalStateException("session is not blocked");
+            }
+            next = current == -1 ? ACTIVE : current + 1;
+        } while ( ! state.compareAndSet(current, next) );
+
+        if ( next == ACTIVE ) {
+            lastActivityNanos = System.nanoTime();
+            /* check blocked in flight still owns the old timeout and will cancel it */
+            deactivation = timers.schedule(this::tryDeactivate, DEACTIVATION_DELAY_MILLIS);
         }
     }
 
     public void dispose() {
-        lock.writeLock().lock();
-        try {
-            deactivation.ifPresent(future -> future.cancel(true));
-            shutdownAndWait(async);
-        }
-        finally {
-            lock.writeLock().unlock();
+        TimerWheel.Timeout timeout = deactivation;
+        if ( nonNull(timeout) ) {
+            timeout.cancel();
         }
+        state.set(IDLE);
+        blocks.clear();
     }
 
     private void activate() {
+        armDeactivation(DEACTIVATION_DELAY_MILLIS);
+        activatedNanos = System.nanoTime();
         onActivation.run();
-        Future newDeactivation = async.schedule(this::tryDeactivate, 300, MILLISECONDS);
-        Future oldDeactivation = deactivation.resetTo(newDeactivation);
-        if ( nonNull(oldDeactivation) ) {
-            throw new IllegalStateException();
-        }
     }
 
-    private void prolongActivity() {
-        Future oldDeactivation = deactivation.resetTo(async.schedule(this::tryDeactivate, 300, MILLISECONDS));
-        if ( nonNull(oldDeactivation) ) {
-            oldDeactivation.cancel(true);
+    private void tryDeactivate() {
+        TimerWheel.Timeout timeout = deactivation;
+        if ( isNull(timeout) || ! timeout.isExpired() ) {
+            return;
+        }
+
+        if ( ! state.compareAndSet(ACTIVE, DEACTIVATING) ) {
+            return;
         }
-    }
 
-    private void tryDeactivate() {
-        lock.writeLock().lock();
-        try {
+        long inactiveNanos = System.nanoTime() - lastActivityNanos;
+        long delayMillis;
+        if ( inactiveNanos < DEACTIVATION_DELAY_NANOS ) {
+            delayMillis = NANOSECONDS.toMillis(DEACTIVATION_DELAY_NANOS - inactiveNanos) + 1;
+        }
+        else {
             boolean canDeactivate = this.canDeactivate.get();
-            if ( canDeactivate ) {
-                System.out.println("session : finish");
-                Platform.runLater(this.onDeactivation);
-                deactivation.nullify();
-            }
-            else {
-                System.out.println("session : prolong");
-                deactivation.resetTo(async.schedule(this::tryDeactivate, 300, MILLISECONDS));
+            if ( canDeactivate && state.compareAndSet(DEACTIVATING, IDLE) ) {
+                deactivatedNanos = System.nanoTime();
+                deactivationThread.execute(onDeactivation);
+                return;
             }
+            delayMillis = DEACTIVATION_DELAY_MILLIS;
+        }
+
+        /* fired timeout is put back to the wheel in place */
+        timeout.extend(delayMillis);
+        boolean rearmed =
+                state.compareAndSet(DEACTIVATING, ACTIVE) ||
+                state.compareAndSet(DEACTIVATING_TOUCHED, ACTIVE);
+        if ( ! rearmed ) {
+            /* blocked during the check, unblock will arm its own deactivation */
+            timeout.cancel();
         }
-        finally {
-            lock.writeLock().unlock();
+    }
+
+    /*
+     * Activations re-use the fired timeout of previous session, a new one is scheduled
+     * only at first activation and after dispose.
+     */
+    private void armDeactivation(long delayMillis) {
+        TimerWheel.Timeout timeout = deactivation;
+        if ( isNull(timeout) || ! timeout.extend(delayMillis) ) {
+            deactivation = timers.schedule(this::tryDeactivate, delayMillis);
         }
     }
 }
@@ -0,0 +1,14 @@
+package diarsid.jdock.model;
+
+import diarsid.support.objects.CommonEnum;
+
+public enum ItemStatus implements CommonEnum<ItemStatus> {
+    UNKNOWN,
+    VALID,
+    MISSING_TARGET,
+    MISSING_ICON;
+
+    public boolean isBroken() {
+        return this == MISSING_TARGET || this == MISSING_ICON;
+    }
+}
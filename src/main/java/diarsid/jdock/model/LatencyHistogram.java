@@ -0,0 +1,113 @@
+package diarsid.jdock.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.String.format;
+
+/*
+ * Lock-free histogram of durations in nanoseconds. Bucket i counts durations
+ * in [2^(i-1), 2^i) ns, so percentiles are reported as bucket upper bounds.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+    private static final double NANOS_IN_MILLI = 1000_000.0;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.totalNanos = new AtomicLong();
+        this.maxNanos = new AtomicLong();
+    }
+
+    public void record(long nanos) {
+        if ( nanos < 0 ) {
+            return;
+        }
+
+        this.counts.incrementAndGet(Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanos)));
+        this.totalNanos.addAndGet(nanos);
+
+        long max;
+        do {
+            max = this.maxNanos.get();
+            if ( nanos <= max ) {
+                break;
+            }
+        } while ( ! this.maxNanos.compareAndSet(max, nanos) );
+    }
+
+    public long count() {
+        long count = 0;
+        for ( int i = 0; i < BUCKETS; i++ ) {
+            count = count + this.counts.get(i);
+        }
+        return count;
+    }
+
+    public double meanMillis() {
+        long count = this.count();
+        if ( count == 0 ) {
+            return 0;
+        }
+        return this.totalNanos.get() / NANOS_IN_MILLI / count;
+    }
+
+    public double maxMillis() {
+        return this.maxNanos.get() / NANOS_IN_MILLI;
+    }
+
+    public double percentileMillis(double percentile) {
+        long[] counts = this.snapshot();
+        long count = 0;
+        for ( long bucketCount : counts ) {
+            count = count + bucketCount;
+        }
+        if ( count == 0 ) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long passed = 0;
+        for ( int i = 0; i < BUCKETS; i++ ) {
+            passed = passed + counts[i];
+            if ( passed >= rank ) {
+                return Math.min(upperBoundNanosOf(i), this.maxNanos.get()) / NANOS_IN_MILLI;
+            }
+        }
+        return this.maxMillis();
+    }
+
+    public long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for ( int i = 0; i < BUCKETS; i++ ) {
+            counts[i] = this.counts.get(i);
+        }
+        return counts;
+    }
+
+    static long upperBoundNanosOf(int bucket) {
+        if ( bucket == 0 ) {
+            return 0;
+        }
+        if ( bucket >= Long.SIZE - 1 ) {
+            return Long.MAX_VALUE;
+        }
+        return 1L << bucket;
+    }
+
+    @Override
+    public String toString() {
+        return format("count=%s mean=%.3fms p50<=%.3fms p90<=%.3fms p99<=%.3fms max=%.3fms",
+                this.count(),
+                this.meanMillis(),
+                this.percentileMillis(50),
+                this.percentileMillis(90),
+                this.percentileMillis(99),
+                this.maxMillis());
+    }
+}
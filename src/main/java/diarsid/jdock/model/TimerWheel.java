@@ -0,0 +1,183 @@
+package diarsid.jdock.model;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import diarsid.support.concurrency.threads.NamedThreadSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class TimerWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    private static final long FIRED = Long.MIN_VALUE;
+    private static final long CANCELLED = Long.MIN_VALUE + 1;
+
+    public final class Timeout {
+
+        private final Runnable task;
+        private final AtomicLong deadlineNanos;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = new AtomicLong(deadlineNanos);
+        }
+
+        /*
+         * Moves deadline of a pending timeout in place. A timeout that has already fired
+         * is re-armed and goes back to the wheel, so its task may re-arm it from inside.
+         */
+        public boolean extend(long delayMillis) {
+            long newDeadline = System.nanoTime() + MILLISECONDS.toNanos(delayMillis);
+            long deadline;
+            do {
+                deadline = this.deadlineNanos.get();
+                if ( deadline == CANCELLED ) {
+                    return false;
+                }
+            } while ( ! this.deadlineNanos.compareAndSet(deadline, newDeadline) );
+
+            if ( deadline == FIRED ) {
+                added.add(this);
+            }
+            extended.increment();
+            return true;
+        }
+
+        public boolean cancel() {
+            long deadline;
+            do {
+                deadline = this.deadlineNanos.get();
+                if ( deadline == FIRED || deadline == CANCELLED ) {
+                    return false;
+                }
+            } while ( ! this.deadlineNanos.compareAndSet(deadline, CANCELLED) );
+
+            cancelled.increment();
+            return true;
+        }
+
+        public boolean isExpired() {
+            return this.deadlineNanos.get() == FIRED;
+        }
+
+        private boolean tryFire(long now) {
+            long deadline = this.deadlineNanos.get();
+            return deadline - now <= 0 && this.deadlineNanos.compareAndSet(deadline, FIRED);
+        }
+    }
+
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] buckets;
+    private final Queue<Timeout> added;
+    private final ScheduledExecutorService ticking;
+    private final LongAdder scheduled;
+    private final LongAdder extended;
+    private final LongAdder cancelled;
+    private final LongAdder fired;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(NamedThreadSource namedThreadSource, String name, long tickMillis, int wheelSize) {
+        this.tickNanos = MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new ArrayDeque[wheelSize];
+        for ( int i = 0; i < wheelSize; i++ ) {
+            this.buckets[i] = new ArrayDeque<>();
+        }
+        this.added = new ConcurrentLinkedQueue<>();
+        this.scheduled = new LongAdder();
+        this.extended = new LongAdder();
+        this.cancelled = new LongAdder();
+        this.fired = new LongAdder();
+        this.tick = 0;
+        this.ticking = namedThreadSource.newNamedScheduledExecutorService(name, 1);
+        this.ticking.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, MILLISECONDS);
+    }
+
+    public Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + MILLISECONDS.toNanos(delayMillis));
+        this.added.add(timeout);
+        this.scheduled.increment();
+        return timeout;
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+
+        Timeout timeout;
+        while ( (timeout = this.added.poll()) != null ) {
+            this.place(timeout, now);
+        }
+
+        ArrayDeque<Timeout> bucket = this.buckets[(int) (this.tick % this.buckets.length)];
+        this.tick++;
+
+        int due = bucket.size();
+        for ( int i = 0; i < due; i++ ) {
+            timeout = bucket.pollFirst();
+            long deadline = timeout.deadlineNanos.get();
+            if ( deadline == CANCELLED ) {
+                continue;
+            }
+            if ( timeout.tryFire(now) ) {
+                this.fire(timeout);
+            }
+            else {
+                this.place(timeout, now);
+            }
+        }
+    }
+
+    private void place(Timeout timeout, long now) {
+        long deadline = timeout.deadlineNanos.get();
+        if ( deadline == CANCELLED || deadline == FIRED ) {
+            return;
+        }
+        long ticksLeft = Math.max(0, (deadline - now + this.tickNanos - 1) / this.tickNanos);
+        long ticksAhead = Math.min(ticksLeft, this.buckets.length - 1);
+        this.buckets[(int) ((this.tick + ticksAhead) % this.buckets.length)].addLast(timeout);
+    }
+
+    private void fire(Timeout timeout) {
+        this.fired.increment();
+        try {
+            timeout.task.run();
+        }
+        catch (Throwable t) {
+            log.error("timer task failed", t);
+        }
+    }
+
+    public long scheduledCount() {
+        return this.scheduled.sum();
+    }
+
+    public long extendedCount() {
+        return this.extended.sum();
+    }
+
+    public long cancelledCount() {
+        return this.cancelled.sum();
+    }
+
+    public long firedCount() {
+        return this.fired.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "TimerWheel{" +
+                "scheduled=" + this.scheduledCount() +
+                ", extended=" + this.extendedCount() +
+                ", cancelled=" + this.cancelledCount() +
+                ", fired=" + this.firedCount() +
+                '}';
+    }
+}
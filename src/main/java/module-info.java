@@ -1,8 +1,8 @@
 module diarsid.jdock {
 
-    requires java.desktop;
     requires javafx.controls;
     requires javafx.swing;
+    requires java.management;
     requires org.slf4j;
     requires com.fasterxml.jackson.core;
     requires com.fasterxml.jackson.databind;
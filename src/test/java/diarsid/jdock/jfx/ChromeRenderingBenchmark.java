@@ -0,0 +1,94 @@
+package diarsid.jdock.jfx;
+
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.CacheHint;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+
+import diarsid.jdock.json.DockChrome;
+
+import static java.lang.Integer.parseInt;
+import static javafx.css.PseudoClass.getPseudoClass;
+
+/*
+ * Compares render cost of dock chrome (background, borders, three-pass drop shadow)
+ * rendered on every frame on .dock itself (LIVE) with chrome rendered once into
+ * cached bitmap of .dock-chrome region (CACHED) while the dock slides in.
+ * Uses bundled jdock-style.css, structure of nodes is the same as Dock builds.
+ *
+ * Run from test classpath, optionally with icons count, icon size and frames:
+ *     java -Dprism.order=sw ... diarsid.jdock.jfx.ChromeRenderingBenchmark 20 48 300
+ * Software pipeline is where chrome effects cost the most.
+ */
+public class ChromeRenderingBenchmark {
+
+    private static final PseudoClass BOTTOM = getPseudoClass("bottom");
+    private static final PseudoClass CHROME_CACHED = getPseudoClass("chrome-cached");
+    private static final int ROUNDS = 3;
+    private static final int SHADOW = 20;
+
+    public static void main(String[] args) {
+        Platform.startup(() -> {
+            run(args);
+            Platform.runLater(Platform::exit);
+        });
+    }
+
+    private static void run(String[] args) {
+        int icons = args.length > 0 ? parseInt(args[0]) : 20;
+        int size = args.length > 1 ? parseInt(args[1]) : 48;
+        int frames = args.length > 2 ? parseInt(args[2]) : 300;
+
+        Image[] images = IconsRenderingBenchmark.generatedIcons(icons, size);
+
+        System.out.println(icons + " icons " + size + "px, " + frames + " frames, " + SnapshotRendering.pipeline());
+        for ( int round = 1; round <= ROUNDS; round++ ) {
+            System.out.println("round " + round);
+            for ( DockChrome chrome : DockChrome.values() ) {
+                System.out.println(measure(chrome, images, frames));
+            }
+        }
+    }
+
+    private static SnapshotRendering measure(DockChrome chromeMode, Image[] images, int frames) {
+        HBox dock = new HBox();
+        dock.getStyleClass().add("dock");
+        dock.pseudoClassStateChanged(BOTTOM, true);
+        for ( Image image : images ) {
+            dock.getChildren().add(new ImageView(image));
+        }
+
+        Region chrome = new Region();
+        chrome.getStyleClass().add("dock-chrome");
+        chrome.pseudoClassStateChanged(BOTTOM, true);
+
+        boolean cached = chromeMode == DockChrome.CACHED;
+        dock.pseudoClassStateChanged(CHROME_CACHED, cached);
+        chrome.setVisible(cached);
+        chrome.setCache(cached);
+        chrome.setCacheHint(cached ? CacheHint.SPEED : CacheHint.DEFAULT);
+
+        StackPane content = new StackPane(chrome, dock);
+        content.setLayoutX(SHADOW);
+        Group root = new Group(content);
+        Scene scene = new Scene(root);
+        scene.getStylesheets().add(ChromeRenderingBenchmark.class.getResource("/jdock-style.css").toExternalForm());
+        root.applyCss();
+        root.layout();
+
+        double width = content.prefWidth(-1) + SHADOW * 2;
+        double height = content.prefHeight(-1) + SHADOW;
+        Rectangle2D viewport = new Rectangle2D(0, 0, width, height);
+        int distance = (int) height;
+        return SnapshotRendering.measure(
+                chromeMode.name(), root, viewport, frames,
+                frame -> content.setTranslateY(distance - (frame % (distance + 1))));
+    }
+}
@@ -0,0 +1,128 @@
+package diarsid.jdock.jfx;
+
+import java.util.Random;
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.HBox;
+import javafx.scene.paint.Color;
+
+import static java.lang.Integer.parseInt;
+
+/*
+ * Compares render cost of one image per icon (SEPARATE) with icons drawn as
+ * viewports of one shared atlas image (ATLAS) while the dock slides in.
+ *
+ * Run from test classpath, optionally with icons count, icon size and frames:
+ *     java -Dprism.order=sw ... diarsid.jdock.jfx.IconsRenderingBenchmark 60 48 300
+ * Use -Dprism.order=sw for software pipeline, where texture count matters most.
+ */
+public class IconsRenderingBenchmark {
+
+    private static final int SPACING = 17;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        Platform.startup(() -> {
+            run(args);
+            Platform.runLater(Platform::exit);
+        });
+    }
+
+    private static void run(String[] args) {
+        int icons = args.length > 0 ? parseInt(args[0]) : 60;
+        int size = args.length > 1 ? parseInt(args[1]) : 48;
+        int frames = args.length > 2 ? parseInt(args[2]) : 300;
+
+        Image[] images = generatedIcons(icons, size);
+
+        System.out.println(icons + " icons " + size + "px, " + frames + " frames, " + SnapshotRendering.pipeline());
+        for ( int round = 1; round <= ROUNDS; round++ ) {
+            System.out.println("round " + round);
+            System.out.println(measure("SEPARATE", separate(images), icons, size, frames));
+            System.out.println(measure("ATLAS", atlas(images), icons, size, frames));
+        }
+    }
+
+    private static SnapshotRendering measure(String name, HBox dock, int icons, int size, int frames) {
+        dock.setSpacing(SPACING);
+        Group root = new Group(dock);
+        new Scene(root);
+
+        double width = icons * (size + SPACING);
+        Rectangle2D viewport = new Rectangle2D(0, 0, width, size);
+        return SnapshotRendering.measure(
+                name, root, viewport, frames,
+                frame -> dock.setTranslateY(size - (frame % (size + 1))));
+    }
+
+    private static HBox separate(Image[] images) {
+        HBox dock = new HBox();
+        for ( Image image : images ) {
+            dock.getChildren().add(new ImageView(image));
+        }
+        return dock;
+    }
+
+    /* icons placed by IconsAtlas as the dock does, each view bound to shared atlas image */
+    private static HBox atlas(Image[] images) {
+        IconsAtlas<ImageView> atlas = new IconsAtlas<>((view, atlasImage, viewports) -> {
+            if ( ! view.imageProperty().isBound() ) {
+                view.imageProperty().bind(atlasImage);
+            }
+            view.setViewport(viewports[0]);
+        });
+
+        HBox dock = new HBox();
+        ImageView view;
+        for ( Image image : images ) {
+            view = new ImageView();
+            atlas.place(view, image);
+            dock.getChildren().add(view);
+        }
+
+        /* released and placed again, as on icon reload, to cover reuse of freed slots */
+        ImageView reloaded;
+        for ( int i = 0; i < images.length; i += 2 ) {
+            reloaded = (ImageView) dock.getChildren().get(i);
+            atlas.release(reloaded);
+            atlas.place(reloaded, images[i]);
+        }
+
+        System.out.println("atlas writes: " + atlas.writes() + ", rebuilds: " + atlas.rebuilds());
+        return dock;
+    }
+
+    static Image[] generatedIcons(int count, int size) {
+        Random random = new Random(42);
+        Image[] images = new Image[count];
+        WritableImage image;
+        PixelWriter pixels;
+        Color color;
+        double radius = size / 2.0;
+        double distance;
+        for ( int i = 0; i < count; i++ ) {
+            image = new WritableImage(size, size);
+            pixels = image.getPixelWriter();
+            color = Color.hsb(random.nextInt(360), 0.7, 0.9);
+            for ( int px = 0; px < size; px++ ) {
+                for ( int py = 0; py < size; py++ ) {
+                    distance = Math.hypot(px - radius, py - radius) / radius;
+                    if ( distance <= 1 ) {
+                        pixels.setColor(px, py, color.deriveColor(0, 1, 1 - distance * 0.5, 1));
+                    }
+                    else {
+                        pixels.setColor(px, py, Color.TRANSPARENT);
+                    }
+                }
+            }
+            images[i] = image;
+        }
+        return images;
+    }
+}
@@ -0,0 +1,82 @@
+package diarsid.jdock.jfx;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import static java.lang.String.format;
+
+/*
+ * Measures render cost of a scene graph by timing synchronous snapshots of it.
+ * Snapshot renders the graph through the same prism pipeline as a pulse does,
+ * but is not paced by vsync, so its time is the render work itself.
+ * Must be called on FX thread.
+ */
+class SnapshotRendering {
+
+    private final String name;
+    private final long firstFrameNanos;
+    private final long[] frameNanos;
+
+    private SnapshotRendering(String name, long firstFrameNanos, long[] frameNanos) {
+        this.name = name;
+        this.firstFrameNanos = firstFrameNanos;
+        this.frameNanos = frameNanos;
+    }
+
+    /*
+     * Renders the first frame separately, it includes texture uploads and effects
+     * computed for the first time. Before each next frame, frame number is passed to
+     * the animation, e.g. to move the content as the show animation does.
+     */
+    static SnapshotRendering measure(String name, Node root, Rectangle2D viewport, int frames, IntConsumer animation) {
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setViewport(viewport);
+        WritableImage target = new WritableImage((int) viewport.getWidth(), (int) viewport.getHeight());
+
+        long start = System.nanoTime();
+        root.snapshot(parameters, target);
+        long firstFrameNanos = System.nanoTime() - start;
+
+        long[] frameNanos = new long[frames];
+        for ( int frame = 0; frame < frames; frame++ ) {
+            animation.accept(frame);
+            start = System.nanoTime();
+            root.snapshot(parameters, target);
+            frameNanos[frame] = System.nanoTime() - start;
+        }
+
+        return new SnapshotRendering(name, firstFrameNanos, frameNanos);
+    }
+
+    double averageMillis() {
+        return Arrays.stream(this.frameNanos).average().orElse(0) / 1000_000.0;
+    }
+
+    private double percentileMillis(double percentile) {
+        long[] sorted = this.frameNanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return format("%-24s first %7.3f ms, avg %7.3f ms, p50 %7.3f ms, p95 %7.3f ms, max %7.3f ms",
+                this.name,
+                this.firstFrameNanos / 1000_000.0,
+                this.averageMillis(),
+                this.percentileMillis(0.50),
+                this.percentileMillis(0.95),
+                this.percentileMillis(1.00));
+    }
+
+    static String pipeline() {
+        return "prism.order=" + System.getProperty("prism.order", "<default>");
+    }
+}
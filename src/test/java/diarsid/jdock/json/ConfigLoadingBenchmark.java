@@ -0,0 +1,120 @@
+package diarsid.jdock.json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import diarsid.jdock.model.DockPosition;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/*
+ * Compares parsing of a large generated config by Jackson with reading of its
+ * binary snapshot. Correctness of snapshot is covered by ConfigSnapshotTest.
+ *
+ * Run from test classpath, optionally with items per dock:
+ *     java ... diarsid.jdock.json.ConfigLoadingBenchmark 2000
+ */
+public class ConfigLoadingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws IOException {
+        int itemsPerDock = args.length > 0 ? parseInt(args[0]) : 2_000;
+
+        Path directory = Files.createTempDirectory("jdock-config-benchmark");
+        Path configFile = directory.resolve("jdock-config.json");
+        try {
+            Files.write(configFile, generatedConfig(itemsPerDock).getBytes(UTF_8));
+            run(configFile, itemsPerDock);
+        }
+        finally {
+            try (var files = Files.list(directory)) {
+                for ( Path file : (Iterable<Path>) files::iterator ) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void run(Path configFile, int itemsPerDock) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(configFile, BasicFileAttributes.class);
+        byte[] json = Files.readAllBytes(configFile);
+        ConfigSnapshot.Key key = new ConfigSnapshot.Key(attributes.size(), attributes.lastModifiedTime().toMillis(), json);
+        ConfigSnapshot snapshot = new ConfigSnapshot(configFile);
+
+        ObjectMapper mapper = new ObjectMapper();
+        snapshot.write(key, mapper.readValue(json, ConfigJson.class));
+        if ( snapshot.readIfMatches(key).isEmpty() ) {
+            throw new IllegalStateException("snapshot is not written");
+        }
+
+        for ( int i = 0; i < WARMUP_ROUNDS; i++ ) {
+            mapper.readValue(json, ConfigJson.class);
+            snapshot.readIfMatches(key);
+        }
+
+        long jacksonNanos = 0;
+        long snapshotNanos = 0;
+        long start;
+        for ( int i = 0; i < MEASURED_ROUNDS; i++ ) {
+            start = System.nanoTime();
+            new ObjectMapper().readValue(json, ConfigJson.class);
+            jacksonNanos = jacksonNanos + (System.nanoTime() - start);
+
+            start = System.nanoTime();
+            snapshot.readIfMatches(key);
+            snapshotNanos = snapshotNanos + (System.nanoTime() - start);
+        }
+
+        System.out.println(format(
+                "config of %s items, %s KB: jackson (new mapper) avg %.3f ms, snapshot avg %.3f ms, x%.1f",
+                itemsPerDock * DockPosition.values().length,
+                json.length / 1024,
+                jacksonNanos / (double) MEASURED_ROUNDS / 1000_000.0,
+                snapshotNanos / (double) MEASURED_ROUNDS / 1000_000.0,
+                jacksonNanos / (double) snapshotNanos));
+    }
+
+    private static String generatedConfig(int itemsPerDock) {
+        StringBuilder config = new StringBuilder();
+        config.append("{\n")
+                .append("  \"settings\": {\n")
+                .append("    \"iconSize\": 48,\n")
+                .append("    \"foldThick\": 3,\n")
+                .append("    \"iconHoverBrighter\": 0.2,\n")
+                .append("    \"iconPressDarker\": 0.2,\n")
+                .append("    \"showTime\": 0.1,\n")
+                .append("    \"hideTime\": 0.08,\n")
+                .append("    \"move\": \"SMOOTH\",\n")
+                .append("    \"layout\": \"VIRTUAL\",\n")
+                .append("    \"nativeIconsByExtension\": [\"exe\", \"lnk\", \"txt\"]\n")
+                .append("  },\n")
+                .append("  \"docks\": {\n");
+
+        DockPosition[] positions = DockPosition.values();
+        String dock;
+        for ( int p = 0; p < positions.length; p++ ) {
+            dock = positions[p].name().toLowerCase();
+            config.append("    \"").append(dock).append("\": [\n");
+            for ( int i = 0; i < itemsPerDock; i++ ) {
+                config.append("      { ")
+                        .append("\"name\": \"").append(dock).append(" item ").append(i).append("\", ")
+                        .append("\"icon\": \"./icons/").append(dock).append("/icon-").append(i).append(".png\", ")
+                        .append("\"target\": \"C:/Programs/").append(dock).append("/program-").append(i).append(".exe\"")
+                        .append(" }")
+                        .append(i < itemsPerDock - 1 ? ",\n" : "\n");
+            }
+            config.append("    ]").append(p < positions.length - 1 ? ",\n" : "\n");
+        }
+
+        config.append("  }\n").append("}\n");
+        return config.toString();
+    }
+}
@@ -0,0 +1,209 @@
+package diarsid.jdock.json;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import diarsid.jdock.model.DockPosition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Snapshot serializes every setting by hand, stores enums by ordinal and needs its
+ * VERSION bumped on each change of settings, so config read from snapshot is checked
+ * field by field against config parsed by Jackson.
+ */
+public class ConfigSnapshotTest {
+
+    /*
+     * Every setting is given a value different from its default, enums take their last
+     * constant to have an ordinal other than 0. New setting missing here fails the test.
+     */
+    private static final String FULL_CONFIG = "{\n" +
+            "  \"settings\": {\n" +
+            "    \"iconSize\": 48,\n" +
+            "    \"foldThick\": 3,\n" +
+            "    \"iconHoverBrighter\": 0.2,\n" +
+            "    \"iconPressDarker\": -0.2,\n" +
+            "    \"showTime\": 0.1,\n" +
+            "    \"hideTime\": 0.08,\n" +
+            "    \"move\": \"" + last(DockMove.values()) + "\",\n" +
+            "    \"reload\": \"" + last(ConfigReload.values()) + "\",\n" +
+            "    \"layout\": \"" + last(DockLayout.values()) + "\",\n" +
+            "    \"thumbnailsCacheMb\": 16,\n" +
+            "    \"imagesCacheMb\": 32,\n" +
+            "    \"nativeIconsByExtension\": [\"exe\", \"lnk\", \"txt\"],\n" +
+            "    \"rendering\": \"" + last(IconsRendering.values()) + "\",\n" +
+            "    \"pulseMetering\": true,\n" +
+            "    \"effects\": \"" + last(IconEffects.values()) + "\",\n" +
+            "    \"chrome\": \"" + last(DockChrome.values()) + "\",\n" +
+            "    \"threads\": \"" + last(ThreadsMode.values()) + "\",\n" +
+            "    \"screens\": { \"top\": 1, \"right\": 0, \"bottom\": 2 },\n" +
+            "    \"latenciesFile\": \"./latencies.csv\",\n" +
+            "    \"windows\": \"" + last(DockWindows.values()) + "\",\n" +
+            "    \"revealSnapshot\": true,\n" +
+            "    \"launchDedupeMs\": 500,\n" +
+            "    \"launchTimeoutMs\": 3000\n" +
+            "  },\n" +
+            "  \"docks\": {\n" +
+            "    \"top\": [\n" +
+            "      { \"name\": \"Content\", \"icon\": \"D:/Icons/Content.bmp\", \"target\": \"D:/CONTENT\" },\n" +
+            "      { \"name\": \"Gmail\", \"icon\": \"D:/Icons/gmail.png\", \"target\": \"https://mail.google.com/mail/u/0/#inbox\" }\n" +
+            "    ],\n" +
+            "    \"right\": [\n" +
+            "      { \"name\": \"Warcraft III\", \"target\": \"C:/Programs/Games/Warcraft III/Warcraft III.exe\" },\n" +
+            "      { \"name\": \"\u00dcn\u00efc\u00f6d\u00e9\", \"icon\": \"D:/Icons/\u00fcn\u00efc\u00f6d\u00e9.png\", \"target\": \"notepad\" }\n" +
+            "    ],\n" +
+            "    \"bottom\": [],\n" +
+            "    \"left\": [\n" +
+            "      { \"name\": \"cmd\", \"icon\": \"D:/Icons/cmd.png\", \"target\": \"D:/Links/cmd.lnk\" }\n" +
+            "    ]\n" +
+            "  }\n" +
+            "}\n";
+
+    private static final String EMPTY_SETTINGS_CONFIG = "{\n" +
+            "  \"settings\": {},\n" +
+            "  \"docks\": { \"top\": [], \"right\": [], \"bottom\": [], \"left\": [] }\n" +
+            "}\n";
+
+    private Path directory;
+    private Path configFile;
+    private ConfigSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("jdock-config-snapshot");
+        this.configFile = this.directory.resolve("jdock-config.json");
+        this.snapshot = new ConfigSnapshot(this.configFile);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.list(this.directory)) {
+            for ( Path file : (Iterable<Path>) files::iterator ) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(this.directory);
+    }
+
+    @Test
+    public void fullConfig_everySettingAndItemRoundTrips() throws Exception {
+        ConfigJson parsed = parse(FULL_CONFIG);
+        assertEverySettingIsSet(parsed.getSettings());
+
+        ConfigJson snapshotted = this.roundTrip(FULL_CONFIG, parsed);
+
+        assertSameSettings(parsed.getSettings(), snapshotted.getSettings());
+        assertSameDocks(parsed, snapshotted);
+    }
+
+    @Test
+    public void emptySettings_nullsAndDefaultsRoundTrip() throws Exception {
+        ConfigJson parsed = parse(EMPTY_SETTINGS_CONFIG);
+
+        ConfigJson snapshotted = this.roundTrip(EMPTY_SETTINGS_CONFIG, parsed);
+
+        assertNull(snapshotted.getSettings().getMove());
+        assertNull(snapshotted.getSettings().getScreens());
+        assertNull(snapshotted.getSettings().getNativeIconsByExtension());
+        assertSameSettings(parsed.getSettings(), snapshotted.getSettings());
+        assertSameDocks(parsed, snapshotted);
+    }
+
+    @Test
+    public void changedConfig_snapshotIsNotRead() throws Exception {
+        byte[] json = FULL_CONFIG.getBytes(UTF_8);
+        this.snapshot.write(new ConfigSnapshot.Key(json.length, 1000, json), parse(FULL_CONFIG));
+
+        assertTrue(this.snapshot.readIfMatches(new ConfigSnapshot.Key(json.length, 1000, json)).isPresent());
+        assertFalse(this.snapshot.readIfMatches(new ConfigSnapshot.Key(json.length, 2000, json)).isPresent());
+
+        byte[] changed = FULL_CONFIG.replace("\"iconSize\": 48", "\"iconSize\": 49").getBytes(UTF_8);
+        assertFalse(this.snapshot.readIfMatches(new ConfigSnapshot.Key(changed.length, 1000, changed)).isPresent());
+    }
+
+    private ConfigJson roundTrip(String config, ConfigJson parsed) throws IOException {
+        byte[] json = config.getBytes(UTF_8);
+        Files.write(this.configFile, json);
+        ConfigSnapshot.Key key = new ConfigSnapshot.Key(json.length, Files.getLastModifiedTime(this.configFile).toMillis(), json);
+
+        this.snapshot.write(key, parsed);
+
+        return this.snapshot.readIfMatches(key).orElseThrow();
+    }
+
+    private static ConfigJson parse(String config) throws IOException {
+        return new ObjectMapper().readValue(config, ConfigJson.class);
+    }
+
+    private static void assertEverySettingIsSet(SettingsJson settings) throws IllegalAccessException {
+        for ( Field field : settingFields() ) {
+            Object value = field.get(settings);
+            assertNotNull(value, field.getName());
+            assertFalse(
+                    value.equals(0) || value.equals(0.0) || value.equals(false),
+                    field.getName() + " has default value in test config");
+        }
+    }
+
+    private static void assertSameSettings(SettingsJson expected, SettingsJson actual) throws IllegalAccessException {
+        for ( Field field : settingFields() ) {
+            Object expectedValue = field.get(expected);
+            Object actualValue = field.get(actual);
+            if ( expectedValue instanceof ScreensJson ) {
+                assertSameScreens((ScreensJson) expectedValue, (ScreensJson) actualValue);
+            }
+            else {
+                assertTrue(Objects.deepEquals(expectedValue, actualValue), field.getName());
+            }
+        }
+    }
+
+    private static void assertSameScreens(ScreensJson expected, ScreensJson actual) {
+        assertNotNull(actual, "screens");
+        for ( DockPosition position : DockPosition.values() ) {
+            assertEquals(expected.get(position), actual.get(position), "screens " + position);
+        }
+    }
+
+    private static void assertSameDocks(ConfigJson expected, ConfigJson actual) {
+        Map<DockPosition, ItemJson[]> expectedDocks = expected.getDocks().all();
+        Map<DockPosition, ItemJson[]> actualDocks = actual.getDocks().all();
+        for ( DockPosition position : DockPosition.values() ) {
+            assertArrayEquals(expectedDocks.get(position), actualDocks.get(position), position.name());
+        }
+    }
+
+    private static List<Field> settingFields() {
+        List<Field> fields = new ArrayList<>();
+        for ( Field field : SettingsJson.class.getDeclaredFields() ) {
+            if ( ! Modifier.isStatic(field.getModifiers()) ) {
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static <E extends Enum<E>> E last(E[] values) {
+        return values[values.length - 1];
+    }
+}
@@ -0,0 +1,64 @@
+package diarsid.jdock.model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import diarsid.support.concurrency.threads.NamedThreadSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DockSessionAllocationTest {
+
+    private static final int WARMUP_TOUCHES = 200_000;
+    private static final int MEASURED_TOUCHES = 1_000_000;
+
+    /*
+     * Tolerance for allocations made by the measurement itself, not by touches:
+     * 1M touches allocating even a single 16-byte object each would be ~16 MB.
+     */
+    private static final long ALLOWED_BYTES = 64 * 1024;
+
+    private NamedThreadSource namedThreadSource;
+    private DockSession session;
+
+    @BeforeEach
+    public void setUp() {
+        this.namedThreadSource = new NamedThreadSource("diarsid.jdock.test");
+        TimerWheel timers = new TimerWheel(this.namedThreadSource, "test-sessions", 5, 64);
+        this.session = new DockSession(timers, () -> {}, () -> {}, () -> false, Runnable::run);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.session.dispose();
+        this.namedThreadSource.closeThreads();
+    }
+
+    @Test
+    public void touchOfActiveSession_doesNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean, "allocation metering is not available");
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported(), "allocation metering is not supported");
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        long threadId = Thread.currentThread().getId();
+
+        for ( int i = 0; i < WARMUP_TOUCHES; i++ ) {
+            this.session.touch();
+        }
+
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for ( int i = 0; i < MEASURED_TOUCHES; i++ ) {
+            this.session.touch();
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(this.session.isActive());
+        assertTrue(allocated < ALLOWED_BYTES, "touches allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,170 @@
+package diarsid.jdock.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import diarsid.support.concurrency.threads.NamedThreadSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DockSessionTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 5;
+    private static final long ROUND_MILLIS = 400;
+    private static final long DEACTIVATION_AWAIT_MILLIS = 3000;
+
+    private NamedThreadSource namedThreadSource;
+    private TimerWheel timers;
+    private AtomicInteger activations;
+    private AtomicInteger deactivations;
+    private AtomicInteger heldBlocks;
+    private AtomicInteger deactivationsWhileBlocked;
+    private DockSession session;
+
+    @BeforeEach
+    public void setUp() {
+        this.namedThreadSource = new NamedThreadSource("diarsid.jdock.test");
+        this.timers = new TimerWheel(this.namedThreadSource, "test-sessions", 5, 64);
+        this.activations = new AtomicInteger();
+        this.deactivations = new AtomicInteger();
+        this.heldBlocks = new AtomicInteger();
+        this.deactivationsWhileBlocked = new AtomicInteger();
+        this.session = new DockSession(
+                this.timers,
+                this.activations::incrementAndGet,
+                () -> {
+                    this.deactivations.incrementAndGet();
+                    if ( this.heldBlocks.get() > 0 ) {
+                        this.deactivationsWhileBlocked.incrementAndGet();
+                    }
+                },
+                () -> true,
+                Runnable::run);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.session.dispose();
+        this.namedThreadSource.closeThreads();
+    }
+
+    @Test
+    public void concurrentTouchesAndBlocks_oneActivationPerSession_noDeactivationWhileBlocked() throws Exception {
+        for ( int round = 1; round <= ROUNDS; round++ ) {
+            this.hammer(round);
+
+            assertTrue(this.awaitDeactivation(), "session is not deactivated after round " + round);
+            assertEquals(round, this.activations.get(), "activations after round " + round);
+            assertEquals(round, this.deactivations.get(), "deactivations after round " + round);
+            assertEquals(0, this.deactivationsWhileBlocked.get(), "deactivations while blocked");
+        }
+    }
+
+    @Test
+    public void heldBlock_preventsDeactivation() throws Exception {
+        this.session.touch();
+        this.session.block("menu");
+
+        Thread.sleep(1000);
+
+        assertTrue(this.session.isActive());
+        assertTrue(this.session.isBlocked());
+        assertEquals(0, this.deactivations.get());
+
+        this.session.unblock("menu");
+
+        assertTrue(this.awaitDeactivation());
+        assertEquals(1, this.activations.get());
+        assertEquals(1, this.deactivations.get());
+    }
+
+    @Test
+    public void rearmsAndActivations_extendTimeoutInPlace() throws Exception {
+        long endNanos = System.nanoTime() + MILLISECONDS.toNanos(1000);
+        while ( System.nanoTime() < endNanos ) {
+            this.session.touch();
+            Thread.sleep(20);
+        }
+
+        assertTrue(this.awaitDeactivation());
+        this.session.touch();
+        assertTrue(this.awaitDeactivation());
+
+        assertEquals(2, this.activations.get());
+        assertEquals(1, this.timers.scheduledCount());
+        assertTrue(this.timers.extendedCount() >= 3, () -> "extended " + this.timers.extendedCount());
+    }
+
+    /*
+     * All threads keep session busy for ROUND_MILLIS, never leaving it idle for the
+     * deactivation delay, so all of them together must produce exactly one activation.
+     */
+    private void hammer(int round) throws InterruptedException {
+        long endNanos = System.nanoTime() + MILLISECONDS.toNanos(ROUND_MILLIS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for ( int t = 0; t < THREADS; t++ ) {
+            String blockPrefix = "round-" + round + "-thread-" + t + "-";
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int blockNo = 0;
+                try {
+                    start.await();
+                    while ( System.nanoTime() < endNanos ) {
+                        this.session.touch();
+                        if ( random.nextInt(8) == 0 ) {
+                            String block = blockPrefix + blockNo++;
+                            this.session.block(block);
+                            this.heldBlocks.incrementAndGet();
+                            Thread.sleep(random.nextInt(3));
+                            this.heldBlocks.decrementAndGet();
+                            this.session.unblock(block);
+                        }
+                        else {
+                            Thread.yield();
+                        }
+                    }
+                }
+                catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        assertNull(failure.get(), () -> "worker failed: " + failure.get());
+        assertFalse(this.session.isBlocked());
+    }
+
+    private boolean awaitDeactivation() throws InterruptedException {
+        long deadline = System.nanoTime() + MILLISECONDS.toNanos(DEACTIVATION_AWAIT_MILLIS);
+        while ( this.session.isActive() ) {
+            if ( System.nanoTime() > deadline ) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}